@@ -20,10 +20,13 @@ public class CollectionConstructor {
     public static <K,V> Map<? extends K,? extends V> buildMap(Object... objects){
         check(objects);
         if (objects.length % 2 != 0) throw new RuntimeException("length is not a multiple of 2");
-        Map<Object, Object> map = new BinarySearchTreeMap<>();
+        Object[] keys = new Object[objects.length / 2],
+                 values = new Object[objects.length / 2];
         for (int i = 0; i < objects.length; i+=2) {
-            map.put(objects[i],objects[i+1]);
+            keys[i / 2] = objects[i];
+            values[i / 2] = objects[i+1];
         }
+        Map<Object, Object> map = new BinarySearchTreeMap<>(keys,values);
         return (Map<? extends K, ? extends V>) map;
     }
 
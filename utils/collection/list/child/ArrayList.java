@@ -1,10 +1,14 @@
 package utils.collection.list.child;
 
+import utils.collection.Collection;
 import utils.collection.list.AbstractList;
+import utils.collection.list.List;
 import utils.objects.ObjectUtils;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 /**
  * 动态数组
@@ -33,6 +37,7 @@ public class ArrayList<E> extends AbstractList<E> {
 
     public ArrayList(E[] array){
         this.elements = array;
+        this.size = array.length;
     }
 
     @Override
@@ -40,37 +45,146 @@ public class ArrayList<E> extends AbstractList<E> {
         if (ObjectUtils.isEmpty(element)) return false;
         if (size == elements.length){
             //如果数组已经满了,动态扩容数组
-            enlargeCapacity();
+            enlargeCapacity(size + 1);
         }
         elements[size++] = element;
         return true;
     }
 
+    /**
+     * 在指定下标插入元素，index 及之后的元素整体向后移动一位
+     */
+    public boolean add(int index,E element){
+        checkPositionIndex(index);
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (size == elements.length) enlargeCapacity(size + 1);
+        System.arraycopy(elements,index,elements,index + 1,size - index);
+        elements[index] = element;
+        ++size;
+        return true;
+    }
+
+    /**
+     * 修改指定下标的元素
+     * @return 返回旧元素
+     */
+    public E set(int index,E element){
+        checkElementIndex(index);
+        E oldElement = elements[index];
+        elements[index] = element;
+        return oldElement;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        return addAll(size,collection);
+    }
+
+    /**
+     * 在指定下标批量插入元素
+     * 只检查一次容量，原有元素只移动一次，避免逐个插入带来的 O(n*k) 移动以及多次扩容
+     * null 元素会被忽略（与 add 保持一致）
+     */
+    public boolean addAll(int index,Collection<? extends E> collection){
+        checkPositionIndex(index);
+        Object[] array = collection.toArray();
+        //过滤 null 元素
+        int length = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) array[length++] = array[i];
+        }
+        if (length == 0) return false;
+        ensureCapacity(size + length);
+        System.arraycopy(elements,index,elements,index + length,size - index);
+        System.arraycopy(array,0,elements,index,length);
+        size += length;
+        return true;
+    }
+
+    /**
+     * 删除 [fromIndex,toIndex) 之间的元素，只移动一次后续元素
+     */
+    public void removeRange(int fromIndex,int toIndex){
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex){
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        if (fromIndex == toIndex) return;
+        System.arraycopy(elements,toIndex,elements,fromIndex,size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        //释放尾部的引用
+        Arrays.fill(elements,newSize,size,null);
+        size = newSize;
+    }
+
+    /**
+     * 删除所有满足条件的元素
+     * 只遍历一次数组，将保留的元素依次向前压缩
+     * @return 是否有元素被删除
+     */
+    public boolean removeIf(Predicate<? super E> filter){
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            E element = elements[i];
+            if (!filter.test(element)) elements[newSize++] = element;
+        }
+        if (newSize == size) return false;
+        Arrays.fill(elements,newSize,size,null);
+        size = newSize;
+        return true;
+    }
+
+    /**
+     * 确保数组至少能容纳 minCapacity 个元素，提前扩容可以避免多次复制数组
+     */
+    public void ensureCapacity(int minCapacity){
+        if (minCapacity > elements.length) enlargeCapacity(minCapacity);
+    }
+
+    /**
+     * 将数组的容量缩小到元素个数，释放多余的空间
+     */
+    public void trimToSize(){
+        if (size < elements.length) elements = Arrays.copyOf(elements,size);
+    }
+
+    /**
+     * 返回 [fromIndex,toIndex) 之间元素的视图，不会复制元素
+     * 对视图的修改会直接作用在当前列表上；视图创建后，不应该再直接修改当前列表的结构，否则视图的内容将不可预期
+     */
+    public List<E> subList(int fromIndex,int toIndex){
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex){
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        return new SubList(fromIndex,toIndex - fromIndex);
+    }
+
     /**
      * 动态扩容
+     * @param minCapacity 至少需要的容量
      */
-    private void enlargeCapacity(){
+    private void enlargeCapacity(int minCapacity){
         int oldCapacity = elements.length;
-        //动态扩容原先容量的1.5倍
+        //动态扩容原先容量的1.5倍，如果仍然不够则直接扩容到需要的容量
         int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity) newCapacity = minCapacity;
         elements = Arrays.copyOf(elements, newCapacity);
     }
 
+    private void checkElementIndex(int index){
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private void checkPositionIndex(int index){
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
     @Override
     public boolean remove(E element) {
         for (int i = 0; i < size; i++) {
             if (element.equals(elements[i])){
-                //如果找到删除的元素
-                if (i == (size - 1)){
-                    //如果删除的是最后一个元素
-                    elements[i] = null;
-                }else{
-                    for (int j = i + 1;j < size; ++j){
-                        //将数组后面的元素向前移动
-                        elements[j - 1] = elements[j];
-                    }
-                }
-                --size;
+                //如果找到删除的元素，将数组后面的元素向前移动
+                System.arraycopy(elements,i + 1,elements,i,size - i - 1);
+                elements[--size] = null;
                 return true;
             }
         }
@@ -81,11 +195,8 @@ public class ArrayList<E> extends AbstractList<E> {
     public E remove(int index) {
         if (index >= size) return null;
         E removeElement = elements[index];
-        ++index;
-        for (;index < size; ++index){
-            elements[index - 1] = elements[index];
-        }
-        --size;
+        System.arraycopy(elements,index + 1,elements,index,size - index - 1);
+        elements[--size] = null;
         return removeElement;
     }
 
@@ -130,30 +241,117 @@ public class ArrayList<E> extends AbstractList<E> {
 
     @Override
     public Iterator<E> iterator() {
-        return new ArrayIterator<>(elements);
+        return new ArrayIterator(0,size);
     }
 
-    private static class ArrayIterator<E> implements Iterator<E>{
+    private class ArrayIterator implements Iterator<E>{
 
-        private E[] elements;
         private int index;
+        private final int end;
 
-        public ArrayIterator(E[] elements) {
-            this.elements = elements;
-            this.index = 0;
+        public ArrayIterator(int start,int end) {
+            this.index = start;
+            this.end = end;
         }
 
         @Override
         public boolean hasNext() {
-            return index < elements.length && elements[index] != null;
+            return index < end;
         }
 
         @Override
         public E next() {
+            if (index >= end) throw new NoSuchElementException();
             return elements[index++];
         }
     }
 
+    /**
+     * 子列表视图，通过 offset 直接访问外部列表的数组
+     */
+    private class SubList extends AbstractList<E>{
+
+        private final int offset;
+
+        SubList(int offset,int size) {
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public boolean add(E element) {
+            if (!ArrayList.this.add(offset + size,element)) return false;
+            ++size;
+            return true;
+        }
+
+        @Override
+        public boolean remove(E element) {
+            if (ObjectUtils.isEmpty(element)) return false;
+            for (int i = 0; i < size; i++) {
+                if (element.equals(elements[offset + i])){
+                    ArrayList.this.remove(offset + i);
+                    --size;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public E remove(int index) {
+            if (index < 0 || index >= size) return null;
+            --size;
+            return ArrayList.this.remove(offset + index);
+        }
+
+        @Override
+        public E get(int index) {
+            if (index < 0 || index >= size) return null;
+            return elements[offset + index];
+        }
+
+        @Override
+        public boolean contains(E element) {
+            if (ObjectUtils.isEmpty(element)) return false;
+            for (int i = 0; i < size; i++) {
+                if (element.equals(elements[offset + i])) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void reversal() {
+            for (int i = offset,j = offset + size - 1; i < j; i++,j--){
+                E temp = elements[i];
+                elements[i] = elements[j];
+                elements[j] = temp;
+            }
+        }
+
+        @Override
+        public void clear() {
+            removeRange(offset,offset + size);
+            size = 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new ArrayIterator(offset,offset + size);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) sb.append(",");
+                sb.append(elements[offset + i]);
+            }
+            sb.append("]");
+            return sb.toString();
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
@@ -0,0 +1,289 @@
+package utils.collection.list.child;
+
+import utils.collection.list.List;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 分块动态数组
+ * 元素存储在多个固定大小的数组（块）中，外部只维护一个块目录
+ * 与 ArrayList 的区别：
+ *  1、扩容时只需要新分配一个块，不会复制已有的元素，避免超大数组复制带来的内存峰值
+ *  2、使用 long 作为下标，元素个数可以超过 2^31 - 1
+ *  3、截断（truncate）时会直接释放多余的块（只保留一个空块，避免在块的边界附近反复分配、释放）
+ * 随机访问依然是 O(1)：chunks[index >>> shift][index & mask]
+ * @param <E>
+ */
+public class ChunkedArrayList<E> implements List<E> {
+
+    /**
+     * 默认每个块的大小（2^14）
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+    /**
+     * 块目录的默认容量
+     */
+    private static final int DEFAULT_DIRECTORY_CAPACITY = 16;
+
+    /**
+     * 块目录
+     */
+    private Object[][] chunks;
+
+    /**
+     * 已经分配的块的个数
+     */
+    private int chunkCount;
+
+    /**
+     * 块大小 = 1 << chunkShift
+     */
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private long size;
+
+    public ChunkedArrayList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize 每个块的大小，会向上取整为2的n次方
+     */
+    public ChunkedArrayList(int chunkSize) {
+        if (chunkSize <= 0 || chunkSize > (1 << 30)) throw new IllegalArgumentException("Illegal chunkSize: " + chunkSize);
+        this.chunkShift = 32 - Integer.numberOfLeadingZeros(chunkSize - 1);
+        this.chunkMask = (1 << chunkShift) - 1;
+        this.chunks = new Object[DEFAULT_DIRECTORY_CAPACITY][];
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        int chunkIndex = (int) (size >>> chunkShift);
+        if (chunkIndex == chunkCount){
+            //当前所有的块都已经满了，只需要分配一个新块
+            allocateChunk();
+        }
+        chunks[chunkIndex][(int) (size & chunkMask)] = element;
+        ++size;
+        return true;
+    }
+
+    private void allocateChunk(){
+        if (chunkCount == chunks.length){
+            //目录扩容只复制块的引用，不会复制元素
+            chunks = Arrays.copyOf(chunks,chunks.length << 1);
+        }
+        chunks[chunkCount++] = new Object[1 << chunkShift];
+    }
+
+    /**
+     * 根据 long 类型的索引获取元素
+     */
+    public E get(long index) {
+        checkIndex(index);
+        return (E) chunks[(int) (index >>> chunkShift)][(int) (index & chunkMask)];
+    }
+
+    /**
+     * 修改指定下标的元素
+     * @return 返回旧元素
+     */
+    public E set(long index,E element) {
+        checkIndex(index);
+        Object[] chunk = chunks[(int) (index >>> chunkShift)];
+        int offset = (int) (index & chunkMask);
+        E oldElement = (E) chunk[offset];
+        chunk[offset] = element;
+        return oldElement;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) return null;
+        return get((long) index);
+    }
+
+    /**
+     * 删除指定下标的元素，后面的元素逐块向前移动一位
+     */
+    public E remove(long index) {
+        checkIndex(index);
+        int chunkIndex = (int) (index >>> chunkShift),
+            offset = (int) (index & chunkMask),
+            lastChunk = (int) ((size - 1) >>> chunkShift),
+            chunkSize = 1 << chunkShift;
+        Object[] chunk = chunks[chunkIndex];
+        E removeElement = (E) chunk[offset];
+        for (;;){
+            //当前块内的元素向前移动一位
+            System.arraycopy(chunk,offset + 1,chunk,offset,chunkSize - offset - 1);
+            if (chunkIndex == lastChunk) break;
+            //下一个块的第一个元素移动到当前块的末尾
+            Object[] next = chunks[++chunkIndex];
+            chunk[chunkSize - 1] = next[0];
+            chunk = next;
+            offset = 0;
+        }
+        truncate(size - 1);
+        return removeElement;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) return null;
+        return remove((long) index);
+    }
+
+    @Override
+    public boolean remove(E element) {
+        long index = indexOf(element);
+        if (index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    /**
+     * 删除并返回最后一个元素，O(1)
+     */
+    public E removeLast() {
+        if (size == 0) return null;
+        E element = get(size - 1);
+        truncate(size - 1);
+        return element;
+    }
+
+    /**
+     * 将列表截断到 newSize 个元素，多余的块会被直接释放
+     * 已经分配的块中会多保留一个空块：在块的边界附近交替 add/removeLast 时不会每次都分配、释放一个块
+     */
+    public void truncate(long newSize) {
+        if (newSize < 0 || newSize > size) throw new IndexOutOfBoundsException("newSize: " + newSize + ", Size: " + size);
+        if (newSize == size) return;
+        //newSize 所需要的块的个数，再多保留一个
+        int keepChunks = Math.min(chunkCount,(int) ((newSize + chunkMask) >>> chunkShift) + 1);
+        //清除保留的块中 [newSize, size) 的引用（最多涉及两个块）
+        long end = Math.min(size,(long) keepChunks << chunkShift);
+        for (long i = newSize; i < end;) {
+            int chunkIndex = (int) (i >>> chunkShift);
+            long chunkStart = (long) chunkIndex << chunkShift;
+            int to = (int) Math.min(chunkMask + 1,end - chunkStart);
+            Arrays.fill(chunks[chunkIndex],(int) (i - chunkStart),to,null);
+            i = chunkStart + to;
+        }
+        for (int i = keepChunks; i < chunkCount; i++) {
+            chunks[i] = null;
+        }
+        chunkCount = keepChunks;
+        size = newSize;
+    }
+
+    /**
+     * 查找元素第一次出现的下标，不存在返回-1
+     */
+    public long indexOf(E element) {
+        if (ObjectUtils.isEmpty(element)) return -1;
+        long index = 0;
+        for (int c = 0; c < chunkCount && index < size; c++) {
+            Object[] chunk = chunks[c];
+            int length = (int) Math.min(chunk.length,size - index);
+            for (int i = 0; i < length; i++) {
+                if (element.equals(chunk[i])) return index + i;
+            }
+            index += length;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return indexOf(element) >= 0;
+    }
+
+    @Override
+    public void reversal() {
+        for (long i = 0, j = size - 1; i < j; i++, j--){
+            set(j,set(i,get(j)));
+        }
+    }
+
+    /**
+     * 元素个数（long）
+     */
+    public long longSize() {
+        return size;
+    }
+
+    /**
+     * 元素个数，超过 Integer.MAX_VALUE 时返回 Integer.MAX_VALUE，请使用 longSize()
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(size,Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        chunks = new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        chunkCount = 0;
+        size = 0;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new ChunkIterator();
+    }
+
+    /**
+     * 按块进行遍历，块内只需要移动下标
+     */
+    final class ChunkIterator implements Iterator<E>{
+
+        private long index;
+        private Object[] chunk;
+        private int offset;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) throw new NoSuchElementException();
+            if (chunk == null || offset == chunk.length){
+                chunk = chunks[(int) (index >>> chunkShift)];
+                offset = 0;
+            }
+            ++index;
+            return (E) chunk[offset++];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
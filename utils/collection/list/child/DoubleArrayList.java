@@ -0,0 +1,235 @@
+package utils.collection.list.child;
+
+import utils.collection.list.AbstractList;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.DoubleStream;
+
+/**
+ * 存储 double 的动态数组
+ * 内部直接使用 double[] 存储元素，避免 ArrayList<Double> 的装箱开销以及指针跳转
+ * 实现了 List<Double> 接口（装箱方法），同时提供了 getDouble/addDouble 等不装箱的方法，热点代码应该优先使用后者
+ */
+public class DoubleArrayList extends AbstractList<Double> {
+
+    /**
+     * 存储元素
+     */
+    protected double[] elements;
+
+    /**
+     * 数组的默认容量
+     */
+    protected static final int DEFAULT_CAPACITY = 64;
+
+    public DoubleArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleArrayList(int capacity) {
+        this.elements = new double[capacity];
+    }
+
+    /**
+     * 复制数组中的元素
+     */
+    public DoubleArrayList(double[] array) {
+        this.elements = Arrays.copyOf(array, Math.max(array.length, 1));
+        this.size = array.length;
+    }
+
+    /**
+     * 添加元素（不装箱）
+     */
+    public void addDouble(double element) {
+        if (size == elements.length){
+            //如果数组已经满了,动态扩容数组
+            enlargeCapacity(size + 1);
+        }
+        elements[size++] = element;
+    }
+
+    /**
+     * 批量添加，只检查一次容量，使用 System.arraycopy 复制
+     */
+    public void addAll(double[] array) {
+        addAll(array, 0, array.length);
+    }
+
+    public void addAll(double[] array, int offset, int length) {
+        if (length <= 0) return;
+        if (size + length > elements.length) enlargeCapacity(size + length);
+        System.arraycopy(array, offset, elements, size, length);
+        size += length;
+    }
+
+    /**
+     * 根据索引获取元素（不装箱）
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * 修改指定下标的元素
+     * @return 返回旧元素
+     */
+    public double setDouble(int index, double element) {
+        checkIndex(index);
+        double oldElement = elements[index];
+        elements[index] = element;
+        return oldElement;
+    }
+
+    /**
+     * 删除指定下标的元素（不装箱）
+     * @return 返回被删除的元素
+     */
+    public double removeDouble(int index) {
+        checkIndex(index);
+        double removeElement = elements[index];
+        int moved = size - index - 1;
+        if (moved > 0) System.arraycopy(elements, index + 1, elements, index, moved);
+        --size;
+        return removeElement;
+    }
+
+    /**
+     * 查找元素第一次出现的下标，不存在返回-1（与 Double.equals 一致，NaN 可以被找到）
+     */
+    public int indexOf(double element) {
+        for (int i = 0; i < size; i++){
+            if (Double.compare(elements[i], element) == 0) return i;
+        }
+        return -1;
+    }
+
+    public boolean containsDouble(double element) {
+        return indexOf(element) >= 0;
+    }
+
+    /**
+     * 原地升序排序
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * 二分查找（要求列表已经有序）
+     * @return 找到返回下标，否则返回 -(插入点) - 1
+     */
+    public int binarySearch(double key) {
+        return Arrays.binarySearch(elements, 0, size, key);
+    }
+
+    /**
+     * 返回当前元素的 DoubleStream（直接读取内部数组，流处理期间不应修改列表）
+     */
+    public DoubleStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * 复制成 double 数组
+     */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * 动态扩容（扩容原先容量的1.5倍，不足时直接扩容到所需容量）
+     */
+    private void enlargeCapacity(int minCapacity) {
+        int oldCapacity = elements.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity) newCapacity = minCapacity;
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    @Override
+    public boolean add(Double element) {
+        if (element == null) return false;
+        addDouble(element);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Double element) {
+        if (element == null) return false;
+        int index = indexOf(element);
+        if (index < 0) return false;
+        removeDouble(index);
+        return true;
+    }
+
+    @Override
+    public Double remove(int index) {
+        if (index < 0 || index >= size) return null;
+        return removeDouble(index);
+    }
+
+    @Override
+    public Double get(int index) {
+        if (index < 0 || index >= size) return null;
+        return elements[index];
+    }
+
+    @Override
+    public boolean contains(Double element) {
+        return element != null && containsDouble(element);
+    }
+
+    @Override
+    public void reversal() {
+        for (int i = 0, j = size - 1; i < j; i++, j--){
+            double temp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = temp;
+        }
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new DoubleIterator();
+    }
+
+    final class DoubleIterator implements PrimitiveIterator.OfDouble {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (index >= size) throw new NoSuchElementException();
+            return elements[index++];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++){
+            if (i > 0) sb.append(",");
+            sb.append(elements[i]);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -4,6 +4,8 @@ import utils.collection.list.AbstractList;
 import utils.objects.ObjectUtils;
 
 import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
 
 /**
  * 双向链表
@@ -28,6 +30,12 @@ public class DoubleLinkedList<E> extends AbstractList<E> {
     //尾结点
     private Node<E> last;
 
+    /**
+     * 上一次根据下标访问的节点以及下标，结构发生变化时失效（cacheNode = null）
+     */
+    private Node<E> cacheNode;
+    private int cacheIndex;
+
     public DoubleLinkedList() {
 
     }
@@ -57,83 +65,53 @@ public class DoubleLinkedList<E> extends AbstractList<E> {
         return true;
     }
 
+    /**
+     * 在指定下标插入元素
+     */
+    public boolean add(int index,E element){
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (index == size) return add(element);
+        Node<E> newNode = linkBefore(element,node(index));
+        //新节点占据了 index 的位置
+        cacheNode = newNode;
+        cacheIndex = index;
+        return true;
+    }
+
     @Override
     public boolean remove(E element) {
         if (ObjectUtils.isEmpty(element)) return false;
+        //查找与删除只遍历一次
         Node<E> removeNode = getNode(element);
-        if (removeNode == head){
-            if (removeNode.next != null){
-                Node<E> next = removeNode.next;
-                head = next;
-                removeNode.next = null;
-                head.pre = null;
-            }else {
-                //如果只有一个头结点
-                head = null;
-                last = null;
-            }
-
-        }else {
-            Node<E> pre = removeNode.pre;
-            if (removeNode.next != null){
-                pre.next = removeNode.next;
-                removeNode.next.pre = pre;
-            }else {
-                pre.next = null;
-            }
-        }
-        --size;
+        if (removeNode == null) return false;
+        unlink(removeNode);
+        cacheNode = null;
         return true;
     }
 
     @Override
     public E remove(int index) {
-        if (index >= size || isEmpty()) return null;
-        Node<E> removeNode = null;
-        if (index <= (size - 2)){
-            //如果删除的节点在前半段
-            removeNode = head;
-            if (index == 0){
-                //如果删除的是head节点
-                if (removeNode.next != null){
-                    head = removeNode.next;
-                    removeNode.next = null;
-                    head.pre = null;
-                }else {
-                    head = null;
-                    last = null;
-                }
-            }else {
-                removeNode = removeNode.next;
-                for (int i = 1; i < index;++i){
-                    removeNode = removeNode.next;
-                }
-                Node<E> pre = removeNode.pre;
-                pre.next = removeNode.next;
-                removeNode.next.pre = pre;
-            }
-        }else {
-            //删除的节点在后半段
-            removeNode = last;
-            if (index == size - 1){
-                //如果删除的是last节点
-                removeNode.pre.next = null;
-                last = removeNode.pre;
-                removeNode.pre = null;
-            }else {
-                removeNode = removeNode.pre;
-                index = (size - index) - 2;
-                for (int j = 0; index > j; --j){
-                    removeNode = removeNode.pre;
-                }
-                removeNode.pre.next = removeNode.next;
-                removeNode.next.pre = removeNode.pre;
-            }
-        }
-        removeNode.next = null;
-        removeNode.pre = null;
-        --size;
-        return removeNode.element;
+        if (index < 0 || index >= size) return null;
+        Node<E> removeNode = node(index);
+        Node<E> next = removeNode.next;
+        E element = unlink(removeNode);
+        //删除后，原先的下一个节点占据了 index 的位置
+        cacheNode = next;
+        cacheIndex = index;
+        return element;
+    }
+
+    /**
+     * 修改指定下标的元素
+     * @return 返回旧元素
+     */
+    public E set(int index,E element){
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Node<E> node = node(index);
+        E oldElement = node.element;
+        node.element = element;
+        return oldElement;
     }
 
     private Node<E> getNode(E element){
@@ -148,38 +126,97 @@ public class DoubleLinkedList<E> extends AbstractList<E> {
 
     @Override
     public E get(int index) {
-        if (index >= size) return null;
+        if (index < 0 || index >= size) return null;
+        return node(index).element;
+    }
+
+    /**
+     * 根据下标查找节点
+     * 从 head、last 以及上一次访问的位置中选择距离最近的一个出发，
+     * 所以按顺序访问下标（get(i)、get(i + 1)...）时，每次只需要移动一步
+     */
+    private Node<E> node(int index){
         Node<E> node;
-        if (index <= (size / 2)){
+        int position;
+        int fromLast = size - 1 - index;
+        if (index <= fromLast){
             node = head;
-            for (int i = 0; i < index; i++) {
-                node = node.next;
-            }
+            position = 0;
         }else {
             node = last;
-            index = (size - index) - 1;
-            for (int j = 0; index > j; --index){
-                node = node.pre;
-            }
+            position = size - 1;
+        }
+        if (cacheNode != null && Math.abs(cacheIndex - index) < Math.min(index,fromLast)){
+            node = cacheNode;
+            position = cacheIndex;
+        }
+        while (position < index){
+            node = node.next;
+            ++position;
+        }
+        while (position > index){
+            node = node.pre;
+            --position;
+        }
+        cacheNode = node;
+        cacheIndex = index;
+        return node;
+    }
+
+    /**
+     * 在 successor 前插入新节点
+     */
+    private Node<E> linkBefore(E element,Node<E> successor){
+        Node<E> pre = successor.pre;
+        Node<E> newNode = new Node<>(pre,successor,element);
+        successor.pre = newNode;
+        if (pre == null){
+            head = newNode;
+        }else {
+            pre.next = newNode;
+        }
+        ++size;
+        return newNode;
+    }
+
+    /**
+     * 将节点从链表中移除
+     * @return 返回节点的元素
+     */
+    private E unlink(Node<E> node){
+        Node<E> pre = node.pre,
+                next = node.next;
+        if (pre == null){
+            head = next;
+        }else {
+            pre.next = next;
+            node.pre = null;
+        }
+        if (next == null){
+            last = pre;
+        }else {
+            next.pre = pre;
+            node.next = null;
         }
+        --size;
         return node.element;
     }
 
     @Override
     public void reversal() {
         if (isEmpty() || size == 1) return;
-        Node<E> node = head.next,
-                pre = head;
-        last = pre;
+        //交换每个节点的 pre 与 next 指针，再交换 head 与 last
+        Node<E> node = head;
         while (node != null){
             Node<E> temp = node.next;
-            pre.next = pre.pre;
-            pre.pre = node;
-            node.next = pre;
-            pre = node;
+            node.next = node.pre;
+            node.pre = temp;
             node = temp;
         }
-        head = pre;
+        Node<E> temp = head;
+        head = last;
+        last = temp;
+        cacheNode = null;
     }
 
     @Override
@@ -200,6 +237,7 @@ public class DoubleLinkedList<E> extends AbstractList<E> {
             last = null;
             size = 0;
         }
+        cacheNode = null;
     }
 
     @Override
@@ -228,6 +266,105 @@ public class DoubleLinkedList<E> extends AbstractList<E> {
         }
     }
 
+    /**
+     * 从指定下标开始的双向游标（与 java.util.ListIterator 一致）
+     * 在游标处 add/set/remove 都是 O(1)，适合边遍历边修改的场景
+     */
+    public ListIterator<E> listIterator(int index){
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return new LinkedListIterator(index);
+    }
+
+    private class LinkedListIterator implements ListIterator<E>{
+
+        /**
+         * 上一次 next/previous 返回的节点
+         */
+        private Node<E> lastReturned;
+        /**
+         * 下一次 next 返回的节点（null表示已经到达末尾）
+         */
+        private Node<E> next;
+        private int nextIndex;
+
+        LinkedListIterator(int index) {
+            this.next = index == size ? null : node(index);
+            this.nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            lastReturned = next;
+            next = next.next;
+            ++nextIndex;
+            return lastReturned.element;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public E previous() {
+            if (!hasPrevious()) throw new NoSuchElementException();
+            next = next == null ? last : next.pre;
+            lastReturned = next;
+            --nextIndex;
+            return lastReturned.element;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            Node<E> lastNext = lastReturned.next;
+            unlink(lastReturned);
+            if (next == lastReturned){
+                //上一次调用的是 previous
+                next = lastNext;
+            }else {
+                --nextIndex;
+            }
+            lastReturned = null;
+            cacheNode = null;
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastReturned == null) throw new IllegalStateException();
+            lastReturned.element = element;
+        }
+
+        @Override
+        public void add(E element) {
+            if (ObjectUtils.isEmpty(element)) return;
+            if (next == null){
+                DoubleLinkedList.this.add(element);
+            }else {
+                linkBefore(element,next);
+            }
+            ++nextIndex;
+            lastReturned = null;
+            cacheNode = null;
+        }
+    }
+
     public E first(){
         return head == null ? null : head.element;
     }
@@ -0,0 +1,442 @@
+package utils.collection.list.child;
+
+import utils.collection.list.AbstractList;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 展开链表（Unrolled Linked List）
+ * 每个节点保存一小段数组，而不是一个元素：
+ *  1、节点个数约为 size / capacity，节点的额外开销被数组中的元素平摊
+ *  2、遍历时大部分时间在连续的数组中移动，缓存命中率远高于 SingleLinkedList/DoubleLinkedList
+ *  3、根据下标查找时按节点跳跃（从距离更近的一端出发），只需要遍历 size / capacity 个节点
+ *  4、通过 listIterator 在游标处插入、删除依然是 O(1)（只移动节点内的元素）
+ * 节点满了会被拆分成两个半满的节点，元素过少时会与后一个节点合并或者从后一个节点借元素，保证节点大致半满
+ * @param <E>
+ */
+public class UnrolledLinkedList<E> extends AbstractList<E> {
+
+    private static final class Node<E>{
+        Object[] elements;
+        int count;
+        Node<E> pre;
+        Node<E> next;
+
+        public Node(int capacity) {
+            this.elements = new Object[capacity];
+        }
+    }
+
+    /**
+     * 每个节点默认保存的元素个数
+     */
+    private static final int DEFAULT_NODE_CAPACITY = 64;
+
+    /**
+     * 每个节点最多保存的元素个数
+     */
+    private final int nodeCapacity;
+
+    /**
+     * 节点元素个数的下限（低于该值时会进行合并或者借元素）
+     */
+    private final int minCount;
+
+    //头结点（至少存在一个节点）
+    private Node<E> head;
+    //尾结点
+    private Node<E> last;
+
+    /**
+     * seek() 的结果：下标在返回节点中的偏移量
+     */
+    private int seekOffset;
+
+    public UnrolledLinkedList() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    public UnrolledLinkedList(int nodeCapacity) {
+        if (nodeCapacity < 4) throw new IllegalArgumentException("Illegal nodeCapacity: " + nodeCapacity);
+        this.nodeCapacity = nodeCapacity;
+        this.minCount = nodeCapacity >> 1;
+        head = new Node<>(nodeCapacity);
+        last = head;
+    }
+
+    public UnrolledLinkedList(E[] objects) {
+        this();
+        if (!ObjectUtils.isEmpty(objects)){
+            for (int i = 0; i < objects.length; i++) {
+                add(objects[i]);
+            }
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (last.count == nodeCapacity){
+            //尾部追加时不拆分节点，直接使用一个新节点，保证顺序添加时节点都是满的
+            Node<E> newNode = new Node<>(nodeCapacity);
+            linkAfter(last,newNode);
+        }
+        last.elements[last.count++] = element;
+        ++size;
+        return true;
+    }
+
+    /**
+     * 在指定下标插入元素
+     */
+    public boolean add(int index,E element){
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (index == size) return add(element);
+        Node<E> node = seek(index);
+        insert(node,seekOffset,element);
+        return true;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= size) return null;
+        Node<E> node = seek(index);
+        return (E) node.elements[seekOffset];
+    }
+
+    /**
+     * 修改指定下标的元素
+     * @return 返回旧元素
+     */
+    public E set(int index,E element){
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        Node<E> node = seek(index);
+        E oldElement = (E) node.elements[seekOffset];
+        node.elements[seekOffset] = element;
+        return oldElement;
+    }
+
+    @Override
+    public E remove(int index) {
+        if (index < 0 || index >= size) return null;
+        Node<E> node = seek(index);
+        E removeElement = (E) node.elements[seekOffset];
+        delete(node,seekOffset);
+        return removeElement;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (Node<E> node = head; node != null; node = node.next){
+            for (int i = 0; i < node.count; i++) {
+                if (element.equals(node.elements[i])){
+                    delete(node,i);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (Node<E> node = head; node != null; node = node.next){
+            for (int i = 0; i < node.count; i++) {
+                if (element.equals(node.elements[i])) return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void reversal() {
+        if (isEmpty() || size == 1) return;
+        Node<E> node = head;
+        while (node != null){
+            //反转节点内的元素
+            Object[] elements = node.elements;
+            for (int i = 0, j = node.count - 1; i < j; i++, j--){
+                Object temp = elements[i];
+                elements[i] = elements[j];
+                elements[j] = temp;
+            }
+            //反转节点之间的指针
+            Node<E> next = node.next;
+            node.next = node.pre;
+            node.pre = next;
+            node = next;
+        }
+        Node<E> temp = head;
+        head = last;
+        last = temp;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        head = new Node<>(nodeCapacity);
+        last = head;
+        size = 0;
+    }
+
+    /**
+     * 查找下标所在的节点，从距离更近的一端出发，按节点跳跃
+     * 偏移量保存在 seekOffset 中
+     * @param index 0 <= index < size
+     */
+    private Node<E> seek(int index){
+        Node<E> node;
+        if (index < (size >> 1)){
+            node = head;
+            while (index >= node.count){
+                index -= node.count;
+                node = node.next;
+            }
+        }else {
+            node = last;
+            //从尾部出发时，计算距离尾部的元素个数
+            int remaining = size - index;
+            while (remaining > node.count){
+                remaining -= node.count;
+                node = node.pre;
+            }
+            index = node.count - remaining;
+        }
+        seekOffset = index;
+        return node;
+    }
+
+    /**
+     * 在节点的 offset 处插入元素，节点满了则先拆分成两个半满的节点
+     * @return 元素最终所在的节点（如果发生拆分，并且插入位置在后半段，返回新节点，偏移量需要减去原节点的元素个数）
+     */
+    private Node<E> insert(Node<E> node,int offset,E element){
+        if (node.count == nodeCapacity){
+            Node<E> newNode = new Node<>(nodeCapacity);
+            int half = nodeCapacity >> 1;
+            int moved = node.count - half;
+            System.arraycopy(node.elements,half,newNode.elements,0,moved);
+            Arrays.fill(node.elements,half,node.count,null);
+            newNode.count = moved;
+            node.count = half;
+            linkAfter(node,newNode);
+            if (offset > half){
+                node = newNode;
+                offset -= half;
+            }
+        }
+        System.arraycopy(node.elements,offset,node.elements,offset + 1,node.count - offset);
+        node.elements[offset] = element;
+        node.count++;
+        ++size;
+        return node;
+    }
+
+    /**
+     * 删除节点中 offset 处的元素，元素过少时与后一个节点合并或者从后一个节点借元素
+     * 删除后，原先 offset 之后的元素依然可以通过 (node,offset) 找到（节点被移除时返回 null）
+     */
+    private Node<E> delete(Node<E> node,int offset){
+        Object[] elements = node.elements;
+        System.arraycopy(elements,offset + 1,elements,offset,node.count - offset - 1);
+        elements[--node.count] = null;
+        --size;
+
+        if (node.count == 0){
+            if (head != last){
+                unlink(node);
+                return null;
+            }
+            return node;
+        }
+        Node<E> next = node.next;
+        if (node.count < minCount && next != null){
+            if (node.count + next.count <= nodeCapacity){
+                //合并后一个节点
+                System.arraycopy(next.elements,0,elements,node.count,next.count);
+                node.count += next.count;
+                unlink(next);
+            }else {
+                //从后一个节点借元素，使两个节点的元素个数大致相等
+                int borrow = (next.count - node.count) >> 1;
+                System.arraycopy(next.elements,0,elements,node.count,borrow);
+                node.count += borrow;
+                System.arraycopy(next.elements,borrow,next.elements,0,next.count - borrow);
+                Arrays.fill(next.elements,next.count - borrow,next.count,null);
+                next.count -= borrow;
+            }
+        }
+        return node;
+    }
+
+    private void linkAfter(Node<E> node,Node<E> newNode){
+        newNode.pre = node;
+        newNode.next = node.next;
+        if (node.next != null){
+            node.next.pre = newNode;
+        }else {
+            last = newNode;
+        }
+        node.next = newNode;
+    }
+
+    private void unlink(Node<E> node){
+        if (node.pre != null){
+            node.pre.next = node.next;
+        }else {
+            head = node.next;
+        }
+        if (node.next != null){
+            node.next.pre = node.pre;
+        }else {
+            last = node.pre;
+        }
+        node.pre = null;
+        node.next = null;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new UnrolledIterator(0);
+    }
+
+    /**
+     * 从指定下标开始的双向游标，可以在游标处 O(1) 插入、删除、修改元素
+     */
+    public ListIterator<E> listIterator(int index){
+        if (index < 0 || index > size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return new UnrolledIterator(index);
+    }
+
+    final class UnrolledIterator implements ListIterator<E>{
+
+        /**
+         * 游标位置：下一个元素为 node.elements[offset]（offset == node.count 时在下一个节点的开头）
+         */
+        private Node<E> node;
+        private int offset;
+        private int index;
+
+        /**
+         * 上一次 next/previous 返回的元素位置
+         */
+        private Node<E> lastNode;
+        private int lastOffset;
+
+        UnrolledIterator(int index) {
+            this.index = index;
+            if (index == size){
+                node = last;
+                offset = last.count;
+            }else {
+                node = seek(index);
+                offset = seekOffset;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) throw new NoSuchElementException();
+            if (offset == node.count){
+                node = node.next;
+                offset = 0;
+            }
+            lastNode = node;
+            lastOffset = offset;
+            ++index;
+            return (E) node.elements[offset++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        public E previous() {
+            if (index <= 0) throw new NoSuchElementException();
+            if (offset == 0){
+                node = node.pre;
+                offset = node.count;
+            }
+            --offset;
+            --index;
+            lastNode = node;
+            lastOffset = offset;
+            return (E) node.elements[offset];
+        }
+
+        @Override
+        public int nextIndex() {
+            return index;
+        }
+
+        @Override
+        public int previousIndex() {
+            return index - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastNode == null) throw new IllegalStateException();
+            //如果上一次调用的是 next，游标需要回退一位
+            if (lastNode == node && lastOffset + 1 == offset) --index;
+            Node<E> pre = lastNode.pre;
+            Node<E> result = delete(lastNode,lastOffset);
+            if (result == null){
+                //节点被移除，游标移动到前一个节点的末尾（被移除的是头结点时移动到新头结点的开头）
+                node = pre == null ? head : pre;
+                offset = pre == null ? 0 : pre.count;
+            }else {
+                node = result;
+                offset = lastOffset;
+            }
+            lastNode = null;
+        }
+
+        @Override
+        public void set(E element) {
+            if (lastNode == null) throw new IllegalStateException();
+            lastNode.elements[lastOffset] = element;
+        }
+
+        @Override
+        public void add(E element) {
+            if (ObjectUtils.isEmpty(element)) return;
+            Node<E> result = insert(node,offset,element);
+            if (result != node) offset -= node.count;
+            node = result;
+            ++offset;
+            ++index;
+            lastNode = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
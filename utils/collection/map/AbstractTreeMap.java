@@ -1,16 +1,20 @@
 package utils.collection.map;
 
 import utils.collection.Collection;
-import utils.collection.CollectionConstructor;
-import utils.collection.list.List;
+import utils.collection.set.AbstractSet;
 import utils.collection.set.Set;
 import utils.objects.ObjectUtils;
 import utils.collection.map.tree.printer.BinaryTreeInfo;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * 抽象的树形Map
@@ -80,7 +84,8 @@ public abstract class AbstractTreeMap<K,V> extends AbstractMap<K,V> implements B
     }
 
     /**
-     * 获取当前节点的后继节点
+     * 获取当前节点的后继节点（中序遍历的下一个节点）
+     * 没有右子树时，沿着 parent 指针向上查找，不存在则返回null
      * @param node
      * @return
      */
@@ -88,12 +93,180 @@ public abstract class AbstractTreeMap<K,V> extends AbstractMap<K,V> implements B
         if (node == null) return null;
         if (node.right != null){
             node = node.right;
-        }else return node;
+            while (node.left != null) node = node.left;
+            return node;
+        }
+        //向上查找第一个从左子树返回的祖先节点
+        while (node.isRight()) node = node.parent;
+        return node.parent;
+    }
+
+    /**
+     * 获取当前节点在中序遍历中的上一个节点
+     * 与 getPrecursorNode 不同，没有左子树时会沿着 parent 指针向上查找，不存在则返回null
+     * @param node
+     * @return
+     */
+    protected Node<K,V> getPredecessor(Node<K,V> node){
+        if (node == null) return null;
+        if (node.left != null){
+            node = node.left;
+            while (node.right != null) node = node.right;
+            return node;
+        }
+        while (node.isLeft()) node = node.parent;
+        return node.parent;
+    }
+
+    /**
+     * 获取最小的节点
+     */
+    protected Node<K,V> firstNode(){
+        Node<K,V> node = root;
+        if (node == null) return null;
         while (node.left != null) node = node.left;
         return node;
     }
 
-    protected static class Node<K,V>{
+    /**
+     * 获取最大的节点
+     */
+    protected Node<K,V> lastNode(){
+        Node<K,V> node = root;
+        if (node == null) return null;
+        while (node.right != null) node = node.right;
+        return node;
+    }
+
+    /**
+     * 获取 >= key 的最小节点，不存在则返回null
+     */
+    protected Node<K,V> ceilingNode(K key){
+        Node<K,V> node = root,result = null;
+        while (node != null){
+            int cmp = compare(key,node.key);
+            if (cmp < 0){
+                result = node;
+                node = node.left;
+            }else if (cmp > 0){
+                node = node.right;
+            }else return node;
+        }
+        return result;
+    }
+
+    /**
+     * 获取 <= key 的最大节点，不存在则返回null
+     */
+    protected Node<K,V> floorNode(K key){
+        Node<K,V> node = root,result = null;
+        while (node != null){
+            int cmp = compare(key,node.key);
+            if (cmp > 0){
+                result = node;
+                node = node.right;
+            }else if (cmp < 0){
+                node = node.left;
+            }else return node;
+        }
+        return result;
+    }
+
+    /**
+     * 节点数超过该值时，使用 fork/join 并行构建左右子树
+     */
+    private static final int PARALLEL_BUILD_THRESHOLD = 1 << 13;
+
+    /**
+     * 批量构建一棵完全平衡的二叉搜索树（会覆盖当前Map的内容）
+     * 1、先检查 keys 是否已经有序，无序则使用 Arrays.parallelSort 进行稳定排序
+     * 2、相同的 key 只保留最后一个（与多次调用 put 的结果一致）
+     * 3、每次取中间节点作为根节点，递归构建左右子树，整个过程为 O(n)
+     * @param keys   key数组（不会修改原数组）
+     * @param values 与 keys 一一对应的 value 数组，为null时所有的 key 都使用 value
+     * @param value  默认的value
+     */
+    protected void buildTree(K[] keys,V[] values,V value){
+        if (values != null && values.length != keys.length) throw new IllegalArgumentException("keys.length != values.length");
+        int length = keys.length;
+        Node<K,V>[] nodes = new Node[length];
+        boolean sorted = true;
+        for (int i = 0; i < length; i++) {
+            nodes[i] = createNode(keys[i],values == null ? value : values[i],null);
+            if (sorted && i > 0 && compare(keys[i - 1],keys[i]) > 0) sorted = false;
+        }
+        if (!sorted){
+            //parallelSort 是稳定排序，相同 key 的节点依然保持原先的顺序
+            Arrays.parallelSort(nodes,(n1,n2) -> compare(n1.key,n2.key));
+        }
+
+        //去重，相同的 key 保留最后添加的节点
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (count > 0 && compare(nodes[count - 1].key,nodes[i].key) == 0){
+                nodes[count - 1] = nodes[i];
+            }else {
+                nodes[count++] = nodes[i];
+            }
+        }
+
+        if (count >= PARALLEL_BUILD_THRESHOLD){
+            root = ForkJoinPool.commonPool().invoke(new BuildTask(nodes,0,count - 1,null));
+        }else {
+            root = buildTree(nodes,0,count - 1,null);
+        }
+        size = count;
+    }
+
+    /**
+     * 以 [start,end] 的中间节点作为根节点，递归构建平衡树
+     */
+    private Node<K,V> buildTree(Node<K,V>[] nodes,int start,int end,Node<K,V> parent){
+        if (start > end) return null;
+        int mid = (start + end) >>> 1;
+        Node<K,V> node = nodes[mid];
+        node.parent = parent;
+        node.left = buildTree(nodes,start,mid - 1,node);
+        node.right = buildTree(nodes,mid + 1,end,node);
+        return node;
+    }
+
+    /**
+     * 并行构建平衡树，左右子树之间没有共享的节点，可以安全的并行处理
+     */
+    final class BuildTask extends RecursiveTask<Node<K,V>>{
+
+        private static final long serialVersionUID = 1L;
+
+        private final Node<K,V>[] nodes;
+        private final int start,end;
+        private final Node<K,V> parent;
+
+        BuildTask(Node<K,V>[] nodes, int start, int end, Node<K,V> parent) {
+            this.nodes = nodes;
+            this.start = start;
+            this.end = end;
+            this.parent = parent;
+        }
+
+        @Override
+        protected Node<K, V> compute() {
+            if (end - start < PARALLEL_BUILD_THRESHOLD) return buildTree(nodes,start,end,parent);
+            int mid = (start + end) >>> 1;
+            Node<K,V> node = nodes[mid];
+            node.parent = parent;
+            BuildTask leftTask = new BuildTask(nodes,start,mid - 1,node);
+            leftTask.fork();
+            node.right = new BuildTask(nodes,mid + 1,end,node).compute();
+            node.left = leftTask.join();
+            return node;
+        }
+    }
+
+    /**
+     * 节点本身就是迭代器返回的实体，遍历时不需要再额外创建 Entry 对象
+     */
+    protected static class Node<K,V> implements Map.Entry<K,V>{
         public Node<K,V> parent;
         public Node<K,V> left,right;
         public K key;
@@ -142,6 +315,21 @@ public abstract class AbstractTreeMap<K,V> extends AbstractMap<K,V> implements B
         public boolean isLeaf(){
             return left == null && right == null;
         }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Key：" + getKey() + ",Value：" + getValue();
+        }
     }
 
     protected interface NodeListener<K,V>{
@@ -206,34 +394,364 @@ public abstract class AbstractTreeMap<K,V> extends AbstractMap<K,V> implements B
 
     @Override
     public Iterator<Entry<K,V>> iterator() {
-        return new TreeIterator();
+        return new EntryIterator(firstNode(),null);
     }
 
-    final class TreeIterator implements Iterator<Entry<K,V>>{
+    /**
+     * 逆序迭代器（从大到小遍历）
+     */
+    public Iterator<Entry<K,V>> descendingIterator() {
+        return new DescendingIterator(lastNode());
+    }
 
-        Queue<Node<K,V>> queue;
+    /**
+     * 按顺序遍历 start - end 之间的元素（包含 start 与 end）
+     * 如果 start > end，会交换两者的顺序
+     */
+    public Iterator<Entry<K,V>> range(K start,K end){
+        if (compare(start,end) > 0){
+            K temp = start;
+            start = end;
+            end = temp;
+        }
+        Node<K,V> first = ceilingNode(start),
+                  last = floorNode(end);
+        if (first == null || last == null || compare(first.key,last.key) > 0){
+            return new EntryIterator(null,null);
+        }
+        return new EntryIterator(first,getSuccessor(last));
+    }
 
-        public TreeIterator() {
-            queue = new LinkedList<>();
-            foreach(ForeachType.MIDDLE, new NodeListener<K, V>() {
-                @Override
-                public void getNode(Node<K, V> node) {
-                    queue.add(node);
-                }
-            });
+    /**
+     * 可分割迭代器，以树的根节点作为分割点，可配合 StreamSupport.stream(map.spliterator(),true) 进行并行遍历
+     */
+    public Spliterator<Entry<K,V>> spliterator(){
+        return new EntrySpliterator(null,null,0,-1);
+    }
+
+    /**
+     * 返回Key的视图，不会复制元素
+     */
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    /**
+     * 返回键值对的视图，不会复制元素
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * 返回Value的视图，不会复制元素
+     */
+    @Override
+    public Collection<V> values() {
+        return new Values();
+    }
+
+    /**
+     * 基于后继节点的迭代器，每一步只沿着 left/right/parent 指针移动，不会创建额外对象
+     * @param <T>
+     */
+    abstract class NodeIterator<T> implements Iterator<T>{
+
+        Node<K,V> next;
+
+        /**
+         * 结束节点（不包含），null表示遍历到最后一个节点
+         */
+        final Node<K,V> fence;
+
+        NodeIterator(Node<K,V> first,Node<K,V> fence) {
+            this.next = first;
+            this.fence = fence;
         }
 
         @Override
         public boolean hasNext() {
-            return !queue.isEmpty();
+            return next != null && next != fence;
+        }
+
+        Node<K,V> nextNode(){
+            Node<K,V> node = next;
+            if (node == null || node == fence) throw new NoSuchElementException();
+            next = getSuccessor(node);
+            return node;
+        }
+    }
+
+    final class EntryIterator extends NodeIterator<Entry<K,V>>{
+
+        EntryIterator(Node<K,V> first,Node<K,V> fence) {
+            super(first,fence);
         }
 
         @Override
         public Entry<K, V> next() {
-            Node<K, V> node = queue.poll();
-            return new MapEnter<>(node.key,node.value);
+            return nextNode();
         }
     }
 
+    final class KeyIterator extends NodeIterator<K>{
+
+        KeyIterator() {
+            super(firstNode(),null);
+        }
+
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    final class ValueIterator extends NodeIterator<V>{
+
+        ValueIterator() {
+            super(firstNode(),null);
+        }
+
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    final class DescendingIterator implements Iterator<Entry<K,V>>{
+
+        private Node<K,V> next;
+
+        DescendingIterator(Node<K,V> last) {
+            this.next = last;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            Node<K,V> node = next;
+            if (node == null) throw new NoSuchElementException();
+            next = getPredecessor(node);
+            return node;
+        }
+    }
+
+    /**
+     * 可分割的迭代器（实现思路与 java.util.TreeMap 一致）
+     * 第一次分割以 root 为界，之后左半部分继续以 fence.left 分割，右半部分以 current.right 分割
+     */
+    final class EntrySpliterator implements Spliterator<Entry<K,V>>{
+
+        /**
+         * 起始节点（包含）
+         */
+        private Node<K,V> current;
+
+        /**
+         * 结束节点（不包含），null表示遍历到最后一个节点
+         */
+        private Node<K,V> fence;
+
+        /**
+         * 0：还没有分割过，1：分割后剩下的右半部分，-1：分割出来的左半部分
+         */
+        private int side;
+
+        /**
+         * 预估的元素个数，-1表示还没有初始化
+         */
+        private int est;
+
+        EntrySpliterator(Node<K,V> current, Node<K,V> fence, int side, int est) {
+            this.current = current;
+            this.fence = fence;
+            this.side = side;
+            this.est = est;
+        }
+
+        private int getEstimate(){
+            if (est < 0){
+                //延迟到第一次使用时再定位起始节点
+                est = size;
+                current = firstNode();
+            }
+            return est;
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            if (est < 0) getEstimate();
+            int d = side;
+            Node<K,V> e = current,f = fence,
+                      s = (e == null || e == f) ? null :
+                          (d == 0) ? root :
+                          (d > 0) ? e.right :
+                          (d < 0 && f != null) ? f.left : null;
+            if (s != null && s != e && s != f && compare(e.key,s.key) < 0){
+                side = 1;
+                return new EntrySpliterator(e,current = s,-1,est >>>= 1);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            if (action == null) throw new NullPointerException();
+            if (est < 0) getEstimate();
+            Node<K,V> node = current;
+            if (node == null || node == fence) return false;
+            current = getSuccessor(node);
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            if (action == null) throw new NullPointerException();
+            if (est < 0) getEstimate();
+            Node<K,V> node = current,f = fence;
+            current = f;
+            while (node != null && node != f){
+                action.accept(node);
+                node = getSuccessor(node);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return getEstimate();
+        }
+
+        @Override
+        public int characteristics() {
+            return (side == 0 ? Spliterator.SIZED : 0) |
+                    Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.ORDERED;
+        }
+
+        @Override
+        public Comparator<? super Entry<K, V>> getComparator() {
+            return (e1,e2) -> compare(e1.getKey(),e2.getKey());
+        }
+    }
+
+    final class KeySet extends AbstractSet<K>{
+
+        @Override
+        public boolean add(K element) {
+            throw new UnsupportedOperationException("keySet 视图不支持添加元素");
+        }
+
+        @Override
+        public boolean remove(K element) {
+            if (getNode(element) == null) return false;
+            AbstractTreeMap.this.remove(element);
+            return true;
+        }
+
+        @Override
+        public boolean contains(K element) {
+            return getNode(element) != null;
+        }
+
+        @Override
+        public int size() {
+            return AbstractTreeMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AbstractTreeMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+    }
+
+    final class EntrySet extends AbstractSet<Entry<K,V>>{
+
+        @Override
+        public boolean add(Entry<K, V> element) {
+            throw new UnsupportedOperationException("entrySet 视图不支持添加元素");
+        }
+
+        @Override
+        public boolean remove(Entry<K, V> element) {
+            if (!contains(element)) return false;
+            AbstractTreeMap.this.remove(element.getKey());
+            return true;
+        }
+
+        @Override
+        public boolean contains(Entry<K, V> element) {
+            if (element == null) return false;
+            Node<K, V> node = getNode(element.getKey());
+            return node != null && Objects.equals(node.value,element.getValue());
+        }
+
+        @Override
+        public int size() {
+            return AbstractTreeMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AbstractTreeMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return AbstractTreeMap.this.iterator();
+        }
+    }
+
+    final class Values implements Collection<V>{
+
+        @Override
+        public boolean add(V element) {
+            throw new UnsupportedOperationException("values 视图不支持添加元素");
+        }
+
+        @Override
+        public boolean remove(V element) {
+            for (Node<K,V> node = firstNode(); node != null; node = getSuccessor(node)){
+                if (Objects.equals(node.value,element)){
+                    AbstractTreeMap.this.remove(node.key);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(V element) {
+            for (Node<K,V> node = firstNode(); node != null; node = getSuccessor(node)){
+                if (Objects.equals(node.value,element)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return AbstractTreeMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AbstractTreeMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+    }
 
 }
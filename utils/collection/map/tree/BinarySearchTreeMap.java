@@ -22,6 +22,28 @@ public class BinarySearchTreeMap<K,V> extends AbstractTreeMap<K,V> {
         this.comparator = comparator;
     }
 
+    /**
+     * 根据数组批量构建一棵平衡的二叉搜索树，时间复杂度 O(n)（无序时需要额外排序）
+     * @param keys   key数组
+     * @param values 与 keys 一一对应的 value 数组
+     */
+    public BinarySearchTreeMap(K[] keys,V[] values) {
+        this(null,keys,values);
+    }
+
+    public BinarySearchTreeMap(Comparator<K> comparator,K[] keys,V[] values) {
+        this.comparator = comparator;
+        buildTree(keys,values,null);
+    }
+
+    /**
+     * 根据数组批量构建一棵平衡的二叉搜索树，所有的 key 都对应同一个 value
+     */
+    public BinarySearchTreeMap(K[] keys,V value) {
+        this.comparator = null;
+        buildTree(keys,null,value);
+    }
+
     @Override
     public void put(K key, V value) {
         if (isEmpty()){
@@ -0,0 +1,248 @@
+package utils.collection.queue;
+
+import utils.collection.Collection;
+import utils.collection.queue.concurrent.ParkingWaitStrategy;
+import utils.collection.queue.concurrent.Sequence;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * 基于环形数组的有界并发队列
+ * producerIndex：下一个写入的位置（只增不减），consumerIndex：下一个读取的位置（只增不减）
+ * 元素所在的下标为 index & mask，容量始终为2的n次方
+ * 子类根据生产者/消费者的个数实现 add（非阻塞，满了返回false）与 poll（非阻塞，空的时候返回null）
+ * @param <E>
+ */
+public abstract class AbstractRingQueue<E> extends AbstractQueue<E> {
+
+    protected final Object[] buffer;
+
+    protected final int mask;
+
+    protected final int capacity;
+
+    /**
+     * 生产者序号与消费者序号，各自独占缓存行
+     */
+    protected final Sequence producerIndex = new Sequence();
+
+    protected final Sequence consumerIndex = new Sequence();
+
+    /**
+     * put/take 使用的等待策略
+     */
+    protected final WaitStrategy waitStrategy;
+
+    protected AbstractRingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 2 || capacity > (1 << 30)) throw new IllegalArgumentException("Illegal Capacity: " + capacity);
+        if (waitStrategy == null) waitStrategy = new ParkingWaitStrategy();
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.buffer = new Object[this.capacity];
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * 非阻塞添加，队列满了返回false
+     */
+    @Override
+    public abstract boolean add(E element);
+
+    /**
+     * 非阻塞弹出，队列为空时返回null
+     */
+    @Override
+    public abstract E poll();
+
+    /**
+     * 添加元素，队列满了则根据等待策略进行等待
+     */
+    public void put(E element) {
+        if (element == null) throw new NullPointerException();
+        int counter = 0;
+        while (!add(element)){
+            counter = waitStrategy.idle(counter);
+        }
+    }
+
+    /**
+     * 弹出元素，队列为空则根据等待策略进行等待
+     */
+    public E take() {
+        E element;
+        int counter = 0;
+        while ((element = poll()) == null){
+            counter = waitStrategy.idle(counter);
+        }
+        return element;
+    }
+
+    /**
+     * 批量添加 elements[offset, offset + length)，队列满了则停止
+     * 先检查整个区间，包含 null 时抛出 NullPointerException，不会只添加一部分
+     * @return 返回成功添加的个数
+     */
+    public int offer(E[] elements, int offset, int length) {
+        checkNotNull(elements, offset, length);
+        for (int i = 0; i < length; i++) {
+            if (!add(elements[offset + i])) return i;
+        }
+        return length;
+    }
+
+    /**
+     * 检查 elements[offset, offset + length) 中没有 null
+     */
+    protected static void checkNotNull(Object[] elements, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (elements[offset + i] == null) throw new NullPointerException();
+        }
+    }
+
+    /**
+     * 批量弹出最多 limit 个元素，交给 consumer 处理
+     * @return 返回弹出的元素个数
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int count = 0;
+        E element;
+        while (count < limit && (element = poll()) != null){
+            consumer.accept(element);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * 批量弹出最多 maxElements 个元素，添加到 collection 中
+     * @return 返回弹出的元素个数
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        return drain(collection::add, maxElements);
+    }
+
+    @Override
+    public E remove() {
+        E element = poll();
+        if (element == null) throw new RuntimeException("queue element size = 0");
+        return element;
+    }
+
+    /**
+     * 并发队列只支持从头部删除元素
+     */
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException("ring queue only supports poll()");
+    }
+
+    /**
+     * 队列的容量
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 元素个数（并发修改时只是一个近似值）
+     */
+    @Override
+    public int size() {
+        //先读 consumerIndex，保证 producerIndex >= consumerIndex
+        long consumer = consumerIndex.get(),
+             producer = producerIndex.get();
+        return (int) Math.max(0, Math.min(producer - consumer, capacity));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    /**
+     * 返回最后添加的元素（并发修改时只是一个近似值）
+     */
+    @Override
+    public E peekLast() {
+        long producer = producerIndex.get();
+        if (producer <= consumerIndex.get()) return null;
+        return (E) buffer[(int) ((producer - 1) & mask)];
+    }
+
+    /**
+     * 弱一致性：只检查调用时刻位于队列中的元素
+     */
+    @Override
+    public boolean contains(E element) {
+        if (element == null) return false;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            if (element.equals(iterator.next())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 清空队列（需要在消费者线程中调用）
+     */
+    @Override
+    public void clear() {
+        while (poll() != null);
+    }
+
+    /**
+     * 弱一致性迭代器：遍历创建时刻 [consumerIndex, producerIndex) 之间仍然存在的元素，不会弹出元素
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new RingIterator();
+    }
+
+    final class RingIterator implements Iterator<E> {
+
+        private long index;
+        private final long end;
+        private E next;
+
+        RingIterator() {
+            this.index = consumerIndex.get();
+            this.end = producerIndex.get();
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && index < end){
+                next = (E) buffer[(int) (index++ & mask)];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) throw new NoSuchElementException();
+            E element = next;
+            advance();
+            return element;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
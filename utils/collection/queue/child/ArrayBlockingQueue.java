@@ -0,0 +1,403 @@
+package utils.collection.queue.child;
+
+import utils.collection.Collection;
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 基于循环数组的有界阻塞队列
+ * 只使用 ReentrantLock 与 Condition，不使用 synchronized：
+ * 等待的线程通过 LockSupport.park 挂起，虚拟线程挂起时会释放载体线程，不会被 pin 住
+ * 每次添加/弹出只唤醒一个等待的线程，大量线程等待时不会出现惊群
+ * @param <E>
+ */
+public class ArrayBlockingQueue<E> extends AbstractQueue<E> {
+
+    private final Object[] elements;
+
+    /**
+     * 下一次弹出的位置与下一次添加的位置
+     */
+    private int takeIndex;
+    private int putIndex;
+
+    private final ReentrantLock lock;
+
+    /**
+     * 队列不为空/队列没有满
+     */
+    private final Condition notEmpty;
+    private final Condition notFull;
+
+    public ArrayBlockingQueue(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param fair 是否使用公平锁（等待最久的线程优先获取锁）
+     */
+    public ArrayBlockingQueue(int capacity, boolean fair) {
+        if (capacity <= 0) throw new IllegalArgumentException("Illegal Capacity: " + capacity);
+        this.elements = new Object[capacity];
+        this.lock = new ReentrantLock(fair);
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    /**
+     * 入队（调用前必须持有锁，并且队列没有满）
+     */
+    private void enqueue(E element) {
+        elements[putIndex] = element;
+        if (++putIndex == elements.length) putIndex = 0;
+        ++size;
+        notEmpty.signal();
+    }
+
+    /**
+     * 出队（调用前必须持有锁，并且队列不为空）
+     */
+    private E dequeue() {
+        E element = (E) elements[takeIndex];
+        elements[takeIndex] = null;
+        if (++takeIndex == elements.length) takeIndex = 0;
+        --size;
+        notFull.signal();
+        return element;
+    }
+
+    /**
+     * 非阻塞添加，队列满了返回false
+     */
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (size == elements.length) return false;
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 添加元素，队列满了则一直等待
+     */
+    public void put(E element) throws InterruptedException {
+        if (ObjectUtils.isEmpty(element)) throw new NullPointerException();
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length){
+                notFull.await();
+            }
+            enqueue(element);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 添加元素，队列满了则最多等待 timeout
+     * @return 超时返回false
+     */
+    public boolean offer(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        if (ObjectUtils.isEmpty(element)) throw new NullPointerException();
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (size == elements.length){
+                if (nanos <= 0L) return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            enqueue(element);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 非阻塞弹出，队列为空时返回null
+     */
+    @Override
+    public E poll() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return size == 0 ? null : dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 弹出元素，队列为空则一直等待
+     */
+    public E take() throws InterruptedException {
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (size == 0){
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 弹出元素，队列为空则最多等待 timeout
+     * @return 超时返回null
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            while (size == 0){
+                if (nanos <= 0L) return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E remove() {
+        E element = poll();
+        if (element == null) throw new RuntimeException("queue element size = 0");
+        return element;
+    }
+
+    /**
+     * 批量弹出最多 maxElements 个元素，添加到 collection 中
+     * 只获取一次锁，弹出后根据腾出的空位唤醒等待添加的线程
+     * @return 返回弹出的元素个数
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        if (collection == this) throw new IllegalArgumentException("collection == this");
+        if (maxElements <= 0) return 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int count = Math.min(maxElements, size);
+            int index = takeIndex;
+            int drained = 0;
+            try {
+                while (drained < count){
+                    E element = (E) elements[index];
+                    collection.add(element);
+                    elements[index] = null;
+                    if (++index == elements.length) index = 0;
+                    ++drained;
+                }
+                return count;
+            } finally {
+                //collection.add 抛出异常时，已经添加的元素仍然需要出队
+                if (drained > 0){
+                    takeIndex = index;
+                    size -= drained;
+                    for (int i = 0; i < drained && lock.hasWaiters(notFull); i++) {
+                        notFull.signal();
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 剩余的空位
+     */
+    public int remainingCapacity() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return elements.length - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    @Override
+    public int size() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public E peekFirst() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return (E) elements[takeIndex];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E peekLast() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (size == 0) return null;
+            return (E) elements[(putIndex == 0 ? elements.length : putIndex) - 1];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (int i = 0, index = takeIndex; i < size; i++) {
+                if (element.equals(elements[index])){
+                    removeAt(index);
+                    return true;
+                }
+                if (++index == elements.length) index = 0;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除 removeIndex 处的元素，后面的元素向前移动一位
+     */
+    private void removeAt(int removeIndex) {
+        if (removeIndex == takeIndex){
+            dequeue();
+            return;
+        }
+        int index = removeIndex;
+        while (true){
+            int next = index + 1 == elements.length ? 0 : index + 1;
+            if (next == putIndex) break;
+            elements[index] = elements[next];
+            index = next;
+        }
+        elements[index] = null;
+        putIndex = index;
+        --size;
+        notFull.signal();
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            for (int i = 0, index = takeIndex; i < size; i++) {
+                if (element.equals(elements[index])) return true;
+                if (++index == elements.length) index = 0;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int count = size;
+            for (int i = 0, index = takeIndex; i < count; i++) {
+                elements[index] = null;
+                if (++index == elements.length) index = 0;
+            }
+            takeIndex = putIndex;
+            size = 0;
+            if (count > 0) notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Object[] array = new Object[size];
+            int firstPart = Math.min(size, elements.length - takeIndex);
+            System.arraycopy(elements, takeIndex, array, 0, firstPart);
+            System.arraycopy(elements, 0, array, firstPart, size - firstPart);
+            return array;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 快照迭代器：遍历创建时刻队列中的元素，不受之后修改的影响
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = toArray();
+        return new Iterator<E>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public E next() {
+                if (index >= snapshot.length) throw new NoSuchElementException();
+                return (E) snapshot[index++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,321 @@
+package utils.collection.queue.child;
+
+import utils.collection.Collection;
+import utils.collection.queue.AbstractQueue;
+import utils.collection.stack.Stack;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 采用循环数组实现的双端队列，同时实现了 Queue 与 Stack 接口
+ * 与 LinkedQueue、LinkedStack 相比，添加元素时不需要创建节点，弹出元素时也不会产生垃圾
+ * 数组容量始终为2的n次方，下标通过 & (length - 1) 进行回绕
+ * 作为队列：add 添加到尾部，poll 从头部弹出
+ * 作为栈：push 添加到尾部，pop 从尾部弹出（与 LinkedStack 一致）
+ * @param <E>
+ */
+public class ArrayDeque<E> extends AbstractQueue<E> implements Stack<E> {
+
+    /**
+     * 存储元素
+     */
+    private Object[] elements;
+
+    /**
+     * 头部元素的下标
+     */
+    private int head;
+
+    /**
+     * 默认容量（必须是2的n次方）
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    public ArrayDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayDeque(int capacity) {
+        this.elements = new Object[tableSizeFor(capacity)];
+    }
+
+    public ArrayDeque(E... objects) {
+        this(objects.length);
+        for (int i = 0; i < objects.length; i++) {
+            add(objects[i]);
+        }
+    }
+
+    /**
+     * 向上取整为2的n次方
+     */
+    private static int tableSizeFor(int capacity){
+        if (capacity <= 1) return 2;
+        if (capacity >= MAX_CAPACITY) return MAX_CAPACITY;
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * 添加到头部
+     */
+    public boolean addFirst(E element){
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (size == elements.length) enlargeCapacity(size + 1);
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = element;
+        ++size;
+        return true;
+    }
+
+    /**
+     * 添加到尾部
+     */
+    public boolean addLast(E element){
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (size == elements.length) enlargeCapacity(size + 1);
+        elements[(head + size) & (elements.length - 1)] = element;
+        ++size;
+        return true;
+    }
+
+    /**
+     * 弹出头部元素，队列为空时返回null
+     */
+    public E pollFirst(){
+        if (size == 0) return null;
+        E element = (E) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        --size;
+        return element;
+    }
+
+    /**
+     * 弹出尾部元素，队列为空时返回null
+     */
+    public E pollLast(){
+        if (size == 0) return null;
+        int tail = (head + size - 1) & (elements.length - 1);
+        E element = (E) elements[tail];
+        elements[tail] = null;
+        --size;
+        return element;
+    }
+
+    @Override
+    public boolean add(E element) {
+        return addLast(element);
+    }
+
+    @Override
+    public E remove() {
+        if (isEmpty()) throw new RuntimeException("queue element size = 0");
+        return pollFirst();
+    }
+
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public boolean push(E element) {
+        return addLast(element);
+    }
+
+    @Override
+    public E pop() {
+        if (isEmpty()) throw new RuntimeException("Stack element size == 0");
+        return pollLast();
+    }
+
+    @Override
+    public E peekFirst() {
+        return (E) elements[head];
+    }
+
+    @Override
+    public E peekLast() {
+        if (size == 0) return null;
+        return (E) elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * 批量添加到尾部，只扩容一次，最多分两段复制
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        Object[] array = collection.toArray();
+        //过滤 null 元素
+        int length = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) array[length++] = array[i];
+        }
+        if (length == 0) return false;
+        if (size + length > elements.length) enlargeCapacity(size + length);
+        int tail = (head + size) & (elements.length - 1);
+        int firstPart = Math.min(length,elements.length - tail);
+        System.arraycopy(array,0,elements,tail,firstPart);
+        System.arraycopy(array,firstPart,elements,0,length - firstPart);
+        size += length;
+        return true;
+    }
+
+    /**
+     * 从头部批量弹出最多 maxElements 个元素，添加到 collection 中
+     * 目标同样是 ArrayDeque 时直接进行数组复制
+     * @return 返回弹出的元素个数
+     */
+    public int drainTo(Collection<? super E> collection,int maxElements){
+        if (collection == this) throw new IllegalArgumentException("collection == this");
+        int count = Math.min(maxElements,size);
+        if (count <= 0) return 0;
+        if (collection instanceof ArrayDeque){
+            ArrayDeque<? super E> target = (ArrayDeque<? super E>) collection;
+            if (target.size + count > target.elements.length) target.enlargeCapacity(target.size + count);
+            int mask = target.elements.length - 1;
+            int copied = 0;
+            while (copied < count){
+                //每次复制源数组与目标数组中都连续的一段
+                int from = (head + copied) & (elements.length - 1),
+                    to = (target.head + target.size + copied) & mask,
+                    length = Math.min(count - copied,Math.min(elements.length - from,target.elements.length - to));
+                System.arraycopy(elements,from,target.elements,to,length);
+                copied += length;
+            }
+            target.size += count;
+            clearRange(count);
+        }else {
+            for (int i = 0; i < count; i++) {
+                collection.add(pollFirst());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 将头部的 count 个元素置空，并移动头部下标
+     */
+    private void clearRange(int count){
+        int firstPart = Math.min(count,elements.length - head);
+        Arrays.fill(elements,head,head + firstPart,null);
+        Arrays.fill(elements,0,count - firstPart,null);
+        head = (head + count) & (elements.length - 1);
+        size -= count;
+    }
+
+    /**
+     * 动态扩容（容量翻倍），元素按顺序复制到新数组的开头
+     */
+    private void enlargeCapacity(int minCapacity){
+        if (minCapacity > MAX_CAPACITY) throw new IllegalStateException("Deque too big");
+        int newCapacity = elements.length << 1;
+        while (newCapacity < minCapacity) newCapacity <<= 1;
+        elements = toArray(new Object[newCapacity]);
+        head = 0;
+    }
+
+    /**
+     * 将元素按顺序复制到 array 的开头
+     */
+    private Object[] toArray(Object[] array){
+        int firstPart = Math.min(size,elements.length - head);
+        System.arraycopy(elements,head,array,0,firstPart);
+        System.arraycopy(elements,0,array,firstPart,size - firstPart);
+        return array;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return toArray(new Object[size]);
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (element.equals(elements[(head + i) & mask])){
+                delete(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 删除第 index 个元素，移动距离较近的一侧
+     */
+    private void delete(int index){
+        int mask = elements.length - 1;
+        if (index < (size >> 1)){
+            //前半段：前面的元素向后移动一位
+            for (int i = index; i > 0; i--) {
+                elements[(head + i) & mask] = elements[(head + i - 1) & mask];
+            }
+            elements[head] = null;
+            head = (head + 1) & mask;
+        }else {
+            //后半段：后面的元素向前移动一位
+            for (int i = index; i < size - 1; i++) {
+                elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+            }
+            elements[(head + size - 1) & mask] = null;
+        }
+        --size;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (element.equals(elements[(head + i) & mask])) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) clearRange(size);
+        head = 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new DequeIterator();
+    }
+
+    final class DequeIterator implements Iterator<E>{
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public E next() {
+            if (index >= size) throw new NoSuchElementException();
+            return (E) elements[(head + index++) & (elements.length - 1)];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,173 @@
+package utils.collection.queue.child;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Collector;
+
+/**
+ * 有界优先队列（Top-K 收集器）
+ * 只保留比较结果最大的 k 个元素，内部是大小为 k 的最小堆，堆顶就是当前的第 k 名：
+ *   新元素不大于堆顶时直接丢弃（O(1)，绝大部分元素都走这个分支）
+ *   否则替换堆顶并下滤（O(log k)）
+ * 从 n 个元素中选出前 k 个的时间复杂度为 O(n log k)，内存为 O(k)
+ * 多个线程各自收集后可以通过 merge 合并，也可以直接在并行流中使用 collector(k, comparator)
+ * @param <E>
+ */
+public class BoundedPriorityQueue<E> extends AbstractQueue<E> {
+
+    private final int maxSize;
+
+    private final Comparator<? super E> comparator;
+
+    private final PriorityQueue<E> heap;
+
+    public BoundedPriorityQueue(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param maxSize    保留的元素个数 k
+     * @param comparator 比较器，为null时采用元素的自然顺序（保留最大的 k 个元素）
+     */
+    public BoundedPriorityQueue(int maxSize, Comparator<? super E> comparator) {
+        if (maxSize < 1) throw new IllegalArgumentException("Illegal maxSize: " + maxSize);
+        this.maxSize = maxSize;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(comparator, Math.min(maxSize, 1 << 16));
+    }
+
+    /**
+     * 并行流使用的收集器，返回按照从大到小排序的前 k 个元素
+     */
+    public static <E> Collector<E, ?, List<E>> collector(int maxSize, Comparator<? super E> comparator) {
+        return Collector.of(
+                () -> new BoundedPriorityQueue<E>(maxSize, comparator),
+                BoundedPriorityQueue::add,
+                (left, right) -> {
+                    left.merge(right);
+                    return left;
+                },
+                BoundedPriorityQueue::toSortedList);
+    }
+
+    /**
+     * 添加元素
+     * @return 元素没有进入前 k 名时返回false
+     */
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (heap.size() < maxSize) return heap.add(element);
+        //快速拒绝：不大于当前的第 k 名
+        if (compare(element, heap.peekFirst()) <= 0) return false;
+        heap.replaceFirst(element);
+        return true;
+    }
+
+    /**
+     * 合并另一个收集器的结果（other 不会被修改）
+     */
+    public void merge(BoundedPriorityQueue<? extends E> other) {
+        if (other == null || other == this) return;
+        Iterator<? extends E> iterator = other.heap.iterator();
+        while (iterator.hasNext()){
+            add(iterator.next());
+        }
+    }
+
+    /**
+     * 当前的第 k 名（新元素必须大于它才能进入），不足 k 个元素时返回null
+     */
+    public E threshold() {
+        return heap.size() < maxSize ? null : heap.peekFirst();
+    }
+
+    /**
+     * 按照从大到小排序返回保留的元素
+     */
+    public List<E> toSortedList() {
+        Object[] array = heap.toArray();
+        Arrays.sort(array, (o1, o2) -> compare((E) o2, (E) o1));
+        return new ArrayList<>((E[]) array);
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    /**
+     * 弹出保留的元素中最小的一个
+     */
+    @Override
+    public E poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public E remove() {
+        if (heap.isEmpty()) throw new RuntimeException("queue element size = 0");
+        return heap.poll();
+    }
+
+    @Override
+    public boolean remove(E element) {
+        return heap.remove(element);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return heap.contains(element);
+    }
+
+    /**
+     * 保留的元素中最小的一个
+     */
+    @Override
+    public E peekFirst() {
+        return heap.peekFirst();
+    }
+
+    @Override
+    public E peekLast() {
+        return heap.peekLast();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+
+    /**
+     * 按堆数组顺序（不是排序后的顺序）遍历
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return heap.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return toSortedList().toString();
+    }
+}
@@ -0,0 +1,183 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于无锁跳表的并发优先队列（严格按照优先级弹出）
+ * add/poll 都不需要加锁，多个调度线程之间只在跳表的节点上进行 CAS
+ * 每个元素附带一个递增的序号，比较结果相同的元素按照添加顺序弹出（允许重复元素）
+ * poll 总是竞争跳表的第一个节点，线程较多时可以使用 MultiPriorityQueue 以放宽顺序换取吞吐量
+ * @param <E>
+ */
+public class ConcurrentSkipListPriorityQueue<E> extends AbstractQueue<E> {
+
+    private static final class Node<E>{
+        final E element;
+        final long sequence;
+
+        Node(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+
+    private final ConcurrentSkipListSet<Node<E>> skipList;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentSkipListPriorityQueue() {
+        this(null);
+    }
+
+    /**
+     * @param comparator 比较器，为null时采用元素的自然顺序（最小的元素最先弹出）
+     */
+    public ConcurrentSkipListPriorityQueue(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+        this.skipList = new ConcurrentSkipListSet<>((n1, n2) -> {
+            int cmp = compare(n1.element, n2.element);
+            return cmp != 0 ? cmp : Long.compare(n1.sequence, n2.sequence);
+        });
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        skipList.add(new Node<>(element, sequence.getAndIncrement()));
+        count.increment();
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        Node<E> node = skipList.pollFirst();
+        if (node == null) return null;
+        count.decrement();
+        return node.element;
+    }
+
+    @Override
+    public E remove() {
+        E element = poll();
+        if (element == null) throw new RuntimeException("queue element size = 0");
+        return element;
+    }
+
+    /**
+     * 查找与 element 比较结果相同的节点（O(log n)，要求比较器与 equals 一致）
+     */
+    private Node<E> findNode(E element) {
+        if (ObjectUtils.isEmpty(element)) return null;
+        for (Node<E> node : skipList.tailSet(new Node<>(element, Long.MIN_VALUE))) {
+            if (compare(node.element, element) != 0) break;
+            if (element.equals(node.element)) return node;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        while (true){
+            Node<E> node = findNode(element);
+            if (node == null) return false;
+            //被其他线程抢先删除时重新查找
+            if (skipList.remove(node)){
+                count.decrement();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return findNode(element) != null;
+    }
+
+    @Override
+    public E peekFirst() {
+        try {
+            return skipList.first().element;
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public E peekLast() {
+        try {
+            return skipList.last().element;
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 元素个数（并发修改时只是一个近似值）
+     */
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, count.sum()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return skipList.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        while (poll() != null);
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * 弱一致性迭代器，按照优先级顺序遍历
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Node<E>> iterator = skipList.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next().element;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,267 @@
+package utils.collection.queue.child;
+
+import utils.collection.Collection;
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * d 叉堆实现的优先队列
+ * 与二叉堆相比，树的高度从 log2(n) 降到 logd(n)：
+ *   add 上滤的层数更少；poll 下滤时每层需要比较 d 个子节点，但它们在数组中是连续的，通常位于同一个缓存行
+ * 4 叉/8 叉堆在元素较多时一般比二叉堆更快，add 较多的场景可以选择更大的 d
+ * 堆的顺序在创建时确定：没有比较器时为最小堆，需要最大堆时传入反向的比较器
+ * 节点 i 的子节点为 [d * i + 1, d * i + d]，父节点为 (i - 1) / d
+ * @param <E>
+ */
+public class DaryPriorityQueue<E> extends AbstractQueue<E> {
+
+    private final Comparator<? super E> comparator;
+
+    private final int arity;
+
+    private E[] elements;
+
+    //默认容量
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //默认为4叉堆
+    private static final int DEFAULT_ARITY = 4;
+
+    public DaryPriorityQueue() {
+        this(DEFAULT_ARITY, null);
+    }
+
+    public DaryPriorityQueue(int arity) {
+        this(arity, null);
+    }
+
+    public DaryPriorityQueue(int arity, Comparator<? super E> comparator) {
+        this(arity, comparator, DEFAULT_CAPACITY);
+    }
+
+    public DaryPriorityQueue(int arity, Comparator<? super E> comparator, int capacity) {
+        if (arity < 2) throw new IllegalArgumentException("Illegal arity: " + arity);
+        if (capacity < 1) throw new IllegalArgumentException("Illegal Capacity: " + capacity);
+        this.arity = arity;
+        this.comparator = comparator;
+        this.elements = (E[]) new Object[capacity];
+    }
+
+    /**
+     * 通过数组建堆（自底向上，O(n)，忽略 null 元素）
+     */
+    public DaryPriorityQueue(int arity, Comparator<? super E> comparator, E[] elements) {
+        this(arity, comparator, Math.max(1, elements.length));
+        for (E element : elements) {
+            if (!ObjectUtils.isEmpty(element)) this.elements[size++] = element;
+        }
+        heapify();
+    }
+
+    public DaryPriorityQueue(int arity, Comparator<? super E> comparator, Collection<? extends E> collection) {
+        this(arity, comparator, (E[]) collection.toArray());
+    }
+
+    /**
+     * 从最后一个非叶子节点开始依次下滤
+     */
+    private void heapify() {
+        for (int i = (size - 2) / arity; i >= 0; i--) {
+            siftDown(i, elements[i]);
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (size == elements.length) enlargeCapacity(size + 1);
+        siftUp(size++, element);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        Object[] array = collection.toArray();
+        int length = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) array[length++] = array[i];
+        }
+        if (length == 0) return false;
+        if (size + length > elements.length) enlargeCapacity(size + length);
+        if (length >= size){
+            System.arraycopy(array, 0, elements, size, length);
+            size += length;
+            heapify();
+        }else {
+            for (int i = 0; i < length; i++) {
+                siftUp(size++, (E) array[i]);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        if (size == 0) return null;
+        E element = elements[0];
+        int last = --size;
+        E moved = elements[last];
+        elements[last] = null;
+        if (last > 0) siftDown(0, moved);
+        return element;
+    }
+
+    @Override
+    public E remove() {
+        if (size == 0) throw new RuntimeException("queue element size = 0");
+        return poll();
+    }
+
+    /**
+     * 删除一个与 element 比较结果为 0 的元素（按照比较器判断，而不是 equals，与 PriorityQueue 一致）
+     */
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (int i = 0; i < size; i++) {
+            if (compare(element, elements[i]) == 0){
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(int index) {
+        int last = --size;
+        E moved = elements[last];
+        elements[last] = null;
+        if (index == last) return;
+        siftDown(index, moved);
+        if (elements[index] == moved) siftUp(index, moved);
+    }
+
+    /**
+     * 上滤：父节点依次下移填补空位，最后把 element 放入空位
+     */
+    private void siftUp(int index, E element) {
+        while (index > 0){
+            int parentIndex = (index - 1) / arity;
+            E parent = elements[parentIndex];
+            if (compare(element, parent) >= 0) break;
+            elements[index] = parent;
+            index = parentIndex;
+        }
+        elements[index] = element;
+    }
+
+    /**
+     * 下滤：在连续的 d 个子节点中找到最小的一个，上移填补空位
+     */
+    private void siftDown(int index, E element) {
+        while (true){
+            int first = arity * index + 1;
+            if (first >= size) break;
+            int end = Math.min(first + arity, size),
+                minIndex = first;
+            E min = elements[first];
+            for (int i = first + 1; i < end; i++) {
+                if (compare(elements[i], min) < 0){
+                    min = elements[i];
+                    minIndex = i;
+                }
+            }
+            if (compare(element, min) <= 0) break;
+            elements[index] = min;
+            index = minIndex;
+        }
+        elements[index] = element;
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    /**
+     * 动态扩容（原先容量的1.5倍）
+     */
+    private void enlargeCapacity(int minCapacity) {
+        int oldCapacity = elements.length;
+        elements = Arrays.copyOf(elements, Math.max(minCapacity, oldCapacity + (oldCapacity >> 1)));
+    }
+
+    /**
+     * 是否存在与 element 比较结果为 0 的元素（按照比较器判断，而不是 equals，与 PriorityQueue 一致）
+     */
+    @Override
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (int i = 0; i < size; i++) {
+            if (compare(element, elements[i]) == 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public E peekFirst() {
+        return size == 0 ? null : elements[0];
+    }
+
+    @Override
+    public E peekLast() {
+        return size == 0 ? null : elements[size - 1];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * 按数组顺序（不是优先级顺序）遍历
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public E next() {
+                if (index >= size) throw new NoSuchElementException();
+                return elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[i]);
+            if (i != size - 1) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,222 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 索引优先队列（二叉堆 + 元素到数组下标的映射）
+ * 与 PriorityQueue 相比：
+ *   contains(E)      O(1)
+ *   remove(E)        O(log n)
+ *   updatePriority(E) O(log n)：元素的优先级（参与比较的字段）改变后，调整它在堆中的位置
+ * 元素不允许重复（equals 相等视为同一个元素），适用于调度器、Dijkstra/A* 等需要修改优先级的场景
+ * 默认情况下是最小堆，需要最大堆时传入反向的比较器
+ * @param <E>
+ */
+public class IndexedPriorityQueue<E> extends AbstractQueue<E> {
+
+    private final Comparator<? super E> comparator;
+
+    private E[] elements;
+
+    /**
+     * 元素 -> 在 elements 中的下标
+     */
+    private final HashMap<E, Integer> indexes;
+
+    //默认容量
+    private static final int DEFAULT_CAPACITY = 11;
+
+    public IndexedPriorityQueue() {
+        this(null);
+    }
+
+    public IndexedPriorityQueue(Comparator<? super E> comparator) {
+        this(comparator, DEFAULT_CAPACITY);
+    }
+
+    public IndexedPriorityQueue(Comparator<? super E> comparator, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Illegal Capacity: " + capacity);
+        this.comparator = comparator;
+        this.elements = (E[]) new Object[capacity];
+        this.indexes = new HashMap<>(capacity);
+    }
+
+    /**
+     * 添加元素，元素已经存在时返回false
+     */
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element) || indexes.containsKey(element)) return false;
+        if (size == elements.length) enlargeCapacity();
+        siftUp(size++, element);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        if (size == 0) return null;
+        E element = elements[0];
+        removeAt(0);
+        return element;
+    }
+
+    @Override
+    public E remove() {
+        if (size == 0) throw new RuntimeException("queue element size = 0");
+        return poll();
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        Integer index = indexes.get(element);
+        if (index == null) return false;
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return !ObjectUtils.isEmpty(element) && indexes.containsKey(element);
+    }
+
+    /**
+     * 元素的优先级发生变化后调用，重新调整它在堆中的位置（提高或者降低优先级都可以）
+     * @return 元素不存在时返回false
+     */
+    public boolean updatePriority(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        Integer index = indexes.get(element);
+        if (index == null) return false;
+        E current = elements[index];
+        siftUp(index, current);
+        //没有上移时再尝试下移
+        if (elements[index] == current) siftDown(index, current);
+        return true;
+    }
+
+    /**
+     * 删除 index 处的元素，用最后一个元素填补空位
+     */
+    private void removeAt(int index) {
+        indexes.remove(elements[index]);
+        int last = --size;
+        E moved = elements[last];
+        elements[last] = null;
+        if (index == last) return;
+        siftDown(index, moved);
+        if (elements[index] == moved) siftUp(index, moved);
+    }
+
+    /**
+     * 从 index 开始上移 element：父节点依次下移填补空位，最后把 element 放入空位
+     */
+    private void siftUp(int index, E element) {
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            E parentElement = elements[parent];
+            if (compare(element, parentElement) >= 0) break;
+            place(index, parentElement);
+            index = parent;
+        }
+        place(index, element);
+    }
+
+    /**
+     * 从 index 开始下移 element：较小的子节点依次上移填补空位，最后把 element 放入空位
+     */
+    private void siftDown(int index, E element) {
+        int half = size >>> 1;
+        while (index < half){
+            int child = (index << 1) + 1,
+                right = child + 1;
+            E childElement = elements[child];
+            if (right < size && compare(elements[right], childElement) < 0){
+                childElement = elements[child = right];
+            }
+            if (compare(element, childElement) <= 0) break;
+            place(index, childElement);
+            index = child;
+        }
+        place(index, element);
+    }
+
+    private void place(int index, E element) {
+        elements[index] = element;
+        indexes.put(element, index);
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    /**
+     * 动态扩容（原先容量的1.5倍）
+     */
+    private void enlargeCapacity() {
+        int oldCapacity = elements.length;
+        elements = Arrays.copyOf(elements, oldCapacity + Math.max(1, oldCapacity >> 1));
+    }
+
+    @Override
+    public E peekFirst() {
+        return size == 0 ? null : elements[0];
+    }
+
+    @Override
+    public E peekLast() {
+        return size == 0 ? null : elements[size - 1];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        indexes.clear();
+        size = 0;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * 按数组顺序（不是优先级顺序）遍历
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public E next() {
+                if (index >= size) throw new NoSuchElementException();
+                return elements[index++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[i]);
+            if (i != size - 1) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
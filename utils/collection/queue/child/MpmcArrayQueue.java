@@ -0,0 +1,93 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractRingQueue;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 多生产者多消费者（MPMC）有界无锁队列（Dmitry Vyukov 的有界队列算法）
+ * 每个位置都有一个序号 sequences[i]：
+ *  1、sequences[i] == producerIndex：位置空闲，生产者可以 CAS producerIndex 抢占该位置
+ *  2、sequences[i] == consumerIndex + 1：元素已经写入，消费者可以 CAS consumerIndex 抢占该位置
+ * 写入/读取完成后，通过 release 写入新的序号交给下一方
+ * @param <E>
+ */
+public class MpmcArrayQueue<E> extends AbstractRingQueue<E> {
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] sequences;
+
+    public MpmcArrayQueue(int capacity) {
+        this(capacity, null);
+    }
+
+    public MpmcArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.sequences = new long[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            SEQUENCE.setRelease(sequences, i, (long) i);
+        }
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (element == null) throw new NullPointerException();
+        long tail;
+        int index;
+        for (;;){
+            tail = producerIndex.get();
+            index = (int) (tail & mask);
+            long sequence = (long) SEQUENCE.getAcquire(sequences, index);
+            if (sequence < tail){
+                //上一轮的元素还没有被取走，判断队列是否已满
+                if (tail - capacity >= consumerIndex.get()) return false;
+            }else if (sequence == tail && producerIndex.compareAndSet(tail, tail + 1)){
+                break;
+            }
+        }
+        buffer[index] = element;
+        SEQUENCE.setRelease(sequences, index, tail + 1);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        long head;
+        int index;
+        for (;;){
+            head = consumerIndex.get();
+            index = (int) (head & mask);
+            long sequence = (long) SEQUENCE.getAcquire(sequences, index);
+            if (sequence < head + 1){
+                //元素还没有写入，判断队列是否为空
+                if (head >= producerIndex.get()) return null;
+            }else if (sequence == head + 1 && consumerIndex.compareAndSet(head, head + 1)){
+                break;
+            }
+        }
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        //该位置留给下一轮的生产者
+        SEQUENCE.setRelease(sequences, index, head + capacity);
+        return element;
+    }
+
+    @Override
+    public E peekFirst() {
+        for (;;){
+            long head = consumerIndex.get();
+            int index = (int) (head & mask);
+            long sequence = (long) SEQUENCE.getAcquire(sequences, index);
+            if (sequence < head + 1){
+                if (head >= producerIndex.get()) return null;
+            }else if (sequence == head + 1){
+                E element = (E) buffer[index];
+                //读取期间没有被其他消费者取走，说明读取的元素有效
+                if (consumerIndex.get() == head) return element;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractRingQueue;
+import utils.collection.queue.concurrent.Sequence;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * 多生产者单消费者（MPSC）有界无锁队列，适用于多个线程汇聚到一个处理线程（fan-in）
+ * 生产者通过 CAS producerIndex 抢占位置，再以 release 方式写入元素
+ * 消费者读取到 null 说明对应的生产者已经抢占了位置但还没有写入，此时自旋等待
+ * @param <E>
+ */
+public class MpscArrayQueue<E> extends AbstractRingQueue<E> {
+
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /**
+     * 生产者可以写入的上限（缓存的 consumerIndex + capacity），多个生产者共享
+     */
+    private final Sequence producerLimit;
+
+    public MpscArrayQueue(int capacity) {
+        this(capacity, null);
+    }
+
+    public MpscArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.producerLimit = new Sequence(this.capacity);
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (element == null) throw new NullPointerException();
+        long tail;
+        do {
+            tail = producerIndex.get();
+            if (tail >= producerLimit.get() && !refreshLimit(tail + 1)) return false;
+        } while (!producerIndex.compareAndSet(tail, tail + 1));
+        ELEMENT.setRelease(buffer, (int) (tail & mask), element);
+        return true;
+    }
+
+    /**
+     * 批量添加，一次 CAS 抢占多个位置
+     */
+    @Override
+    public int offer(E[] elements, int offset, int length) {
+        if (length <= 0) return 0;
+        //抢占位置之前检查，抢占后的位置必须全部写入，否则消费者会一直等待
+        checkNotNull(elements, offset, length);
+        long tail;
+        int count;
+        do {
+            tail = producerIndex.get();
+            long limit = producerLimit.get();
+            if (tail + length > limit){
+                refreshLimit(tail + length);
+                limit = producerLimit.get();
+            }
+            count = (int) Math.min(length, limit - tail);
+            if (count <= 0) return 0;
+        } while (!producerIndex.compareAndSet(tail, tail + count));
+        for (int i = 0; i < count; i++) {
+            ELEMENT.setRelease(buffer, (int) ((tail + i) & mask), elements[offset + i]);
+        }
+        return count;
+    }
+
+    /**
+     * 重新读取 consumerIndex 计算写入上限
+     * @return 更新后的上限是否 >= required
+     */
+    private boolean refreshLimit(long required) {
+        long limit = consumerIndex.get() + capacity;
+        long oldLimit = producerLimit.get();
+        if (limit > oldLimit) producerLimit.compareAndSet(oldLimit, limit);
+        return limit >= required;
+    }
+
+    @Override
+    public E poll() {
+        long head = consumerIndex.getPlain();
+        int index = (int) (head & mask);
+        E element = (E) ELEMENT.getAcquire(buffer, index);
+        if (element == null){
+            if (head >= producerIndex.get()) return null;
+            //位置已经被生产者抢占，等待写入完成
+            do {
+                Thread.onSpinWait();
+                element = (E) ELEMENT.getAcquire(buffer, index);
+            } while (element == null);
+        }
+        buffer[index] = null;
+        consumerIndex.set(head + 1);
+        return element;
+    }
+
+    /**
+     * 批量弹出，只发布一次 consumerIndex（遇到尚未写入完成的位置时停止）
+     */
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long head = consumerIndex.getPlain();
+        int count = 0;
+        try {
+            while (count < limit){
+                int index = (int) ((head + count) & mask);
+                E element = (E) ELEMENT.getAcquire(buffer, index);
+                if (element == null) break;
+                buffer[index] = null;
+                ++count;
+                consumer.accept(element);
+            }
+        } finally {
+            if (count > 0) consumerIndex.set(head + count);
+        }
+        return count;
+    }
+
+    @Override
+    public E peekFirst() {
+        long head = consumerIndex.getPlain();
+        int index = (int) (head & mask);
+        E element = (E) ELEMENT.getAcquire(buffer, index);
+        if (element == null && head < producerIndex.get()){
+            do {
+                Thread.onSpinWait();
+                element = (E) ELEMENT.getAcquire(buffer, index);
+            } while (element == null);
+        }
+        return element;
+    }
+}
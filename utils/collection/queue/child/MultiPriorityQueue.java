@@ -0,0 +1,328 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * MultiQueue：放宽顺序的并发优先队列
+ * 元素分散在多个各自加锁的堆（分片）中：
+ *   add：随机选择一个分片加入
+ *   poll：随机选择两个分片，比较它们的堆顶，从较优的一个分片中弹出（two-choice）
+ * 加锁时只使用 tryLock，失败后换一个分片重试，线程之间几乎不会互相等待，吞吐量随线程数增加
+ * 弹出的元素不一定是全局最优的，但期望的排名误差只与分片数有关（分片数为 c * 线程数时通常在 O(c * 线程数) 以内）
+ * 分片数为1时退化为单锁的严格优先队列，需要严格顺序时也可以使用 ConcurrentSkipListPriorityQueue
+ * 元素个数使用 LongAdder 统计，poll/isEmpty 通过各分片的堆顶判断是否为空，没有所有线程共同修改的变量
+ * @param <E>
+ */
+public class MultiPriorityQueue<E> extends AbstractQueue<E> {
+
+    private static final class Shard<E>{
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue<E> heap;
+        /**
+         * 堆顶的缓存（修改时在锁内更新），选择分片时不需要加锁
+         */
+        volatile E top;
+
+        Shard(Comparator<? super E> comparator) {
+            this.heap = new PriorityQueue<>(comparator);
+        }
+    }
+
+    /**
+     * 连续 tryLock 失败多少次后改为阻塞加锁
+     */
+    private static final int MAX_TRY_LOCK = 16;
+
+    private final Comparator<? super E> comparator;
+
+    private final Shard<E>[] shards;
+
+    /**
+     * 只用于 size()，不参与 poll 的判断
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * 分片数默认为 CPU 核数的 2 倍
+     */
+    public MultiPriorityQueue() {
+        this(null);
+    }
+
+    public MultiPriorityQueue(Comparator<? super E> comparator) {
+        this(comparator, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param comparator 比较器，为null时采用元素的自然顺序（最小的元素最先弹出）
+     * @param shardCount 分片数，越大吞吐量越高、顺序越宽松；为1时严格按照优先级弹出
+     */
+    public MultiPriorityQueue(Comparator<? super E> comparator, int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("Illegal shardCount: " + shardCount);
+        this.comparator = comparator;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard<>(comparator);
+        }
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<E> shard;
+        int attempts = 0;
+        do {
+            shard = shards[random.nextInt(shards.length)];
+        } while (!shard.lock.tryLock() && ++attempts < MAX_TRY_LOCK);
+        if (attempts == MAX_TRY_LOCK) shard.lock.lock();
+        try {
+            shard.heap.add(element);
+            shard.top = shard.heap.peekFirst();
+        } finally {
+            shard.lock.unlock();
+        }
+        count.increment();
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        if (shards.length == 1) return pollShard(shards[0], true);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempts = 0; attempts < MAX_TRY_LOCK; attempts++) {
+            Shard<E> s1 = shards[random.nextInt(shards.length)],
+                     s2 = shards[random.nextInt(shards.length)];
+            E t1 = s1.top,
+              t2 = s2.top;
+            //两个分片都为空时元素可能很少，直接检查所有分片
+            if (t1 == null && t2 == null) break;
+            Shard<E> best = t1 == null ? s2 : t2 == null ? s1 : compare(t1, t2) <= 0 ? s1 : s2;
+            E element = pollShard(best, false);
+            if (element != null) return element;
+        }
+        return pollSlow();
+    }
+
+    /**
+     * 随机选择多次仍然失败时（竞争激烈或者元素很少），按顺序检查所有分片
+     * 一轮检查中所有分片的堆顶都为空时返回null
+     */
+    private E pollSlow() {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (;;){
+            boolean found = false;
+            for (int i = 0; i < shards.length; i++) {
+                Shard<E> shard = shards[(start + i) % shards.length];
+                if (shard.top == null) continue;
+                found = true;
+                E element = pollShard(shard, true);
+                if (element != null) return element;
+            }
+            if (!found) return null;
+            //看到的元素被其他线程取走了，重新检查
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 从分片中弹出堆顶
+     * @param block false时只使用 tryLock，加锁失败返回null
+     */
+    private E pollShard(Shard<E> shard, boolean block) {
+        if (block){
+            shard.lock.lock();
+        }else if (!shard.lock.tryLock()){
+            return null;
+        }
+        E element;
+        try {
+            element = shard.heap.poll();
+            shard.top = shard.heap.peekFirst();
+        } finally {
+            shard.lock.unlock();
+        }
+        if (element != null) count.decrement();
+        return element;
+    }
+
+    @Override
+    public E remove() {
+        E element = poll();
+        if (element == null) throw new RuntimeException("queue element size = 0");
+        return element;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.heap.remove(element)){
+                    shard.top = shard.heap.peekFirst();
+                    count.decrement();
+                    return true;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.heap.contains(element)) return true;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 所有分片堆顶中最优的元素（并发修改时只是一个近似值）
+     */
+    @Override
+    public E peekFirst() {
+        E best = null;
+        for (Shard<E> shard : shards) {
+            E top = shard.top;
+            if (top != null && (best == null || compare(top, best) < 0)) best = top;
+        }
+        return best;
+    }
+
+    /**
+     * 优先级最低的元素（需要遍历所有元素，O(n)）
+     */
+    @Override
+    public E peekLast() {
+        E last = null;
+        for (Object object : toArray()) {
+            E element = (E) object;
+            if (last == null || compare(element, last) > 0) last = element;
+        }
+        return last;
+    }
+
+    /**
+     * 元素个数（并发修改时只是一个近似值）
+     */
+    @Override
+    public int size() {
+        return (int) Math.max(0, count.sum());
+    }
+
+    /**
+     * 所有分片的堆顶都为空时为空（并发修改时只是一个近似值）
+     */
+    @Override
+    public boolean isEmpty() {
+        for (Shard<E> shard : shards) {
+            if (shard.top != null) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                count.add(-shard.heap.size());
+                shard.heap.clear();
+                shard.top = null;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * 依次对每个分片加锁并复制其中的元素（不是优先级顺序）
+     */
+    @Override
+    public Object[] toArray() {
+        Object[][] parts = new Object[shards.length][];
+        int length = 0;
+        for (int i = 0; i < shards.length; i++) {
+            Shard<E> shard = shards[i];
+            shard.lock.lock();
+            try {
+                parts[i] = shard.heap.toArray();
+            } finally {
+                shard.lock.unlock();
+            }
+            length += parts[i].length;
+        }
+        Object[] array = new Object[length];
+        int index = 0;
+        for (Object[] part : parts) {
+            System.arraycopy(part, 0, array, index, part.length);
+            index += part.length;
+        }
+        return array;
+    }
+
+    /**
+     * 快照迭代器（不是优先级顺序）
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final Object[] snapshot = toArray();
+        return new Iterator<E>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < snapshot.length;
+            }
+
+            @Override
+            public E next() {
+                if (index >= snapshot.length) throw new NoSuchElementException();
+                return (E) snapshot[index++];
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,259 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 配对堆实现的优先队列
+ *   add、meld（合并两个堆）：O(1)，只需要把两个根节点连接起来
+ *   poll：均摊 O(log n)，删除根节点后通过两趟合并（从左到右两两合并，再从右到左依次合并）重建
+ * 适用于 add 远多于 poll 的场景（例如大量定时任务，其中大部分在到期前就被取消）
+ * 节点采用“左孩子-右兄弟”的方式存储，prev 指向左兄弟，最左边的孩子的 prev 指向父节点
+ * 堆的顺序在创建时确定：没有比较器时为最小堆，需要最大堆时传入反向的比较器
+ * @param <E>
+ */
+public class PairingHeap<E> extends AbstractQueue<E> {
+
+    private static class Node<E>{
+        E element;
+        //最左边的孩子
+        Node<E> child;
+        //右兄弟
+        Node<E> sibling;
+        //左兄弟或者父节点
+        Node<E> prev;
+
+        Node(E element) {
+            this.element = element;
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+
+    private Node<E> root;
+
+    public PairingHeap() {
+        this(null);
+    }
+
+    public PairingHeap(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        Node<E> node = new Node<>(element);
+        root = root == null ? node : link(root, node);
+        ++size;
+        return true;
+    }
+
+    /**
+     * 将 other 中的所有元素合并到当前堆中（O(1)），合并后 other 为空
+     * 两个堆需要使用相同的比较顺序
+     */
+    public void meld(PairingHeap<E> other) {
+        if (other == null || other == this || other.root == null) return;
+        root = root == null ? other.root : link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    @Override
+    public E poll() {
+        if (root == null) return null;
+        E element = root.element;
+        root = mergePairs(root.child);
+        if (root != null) root.prev = null;
+        --size;
+        return element;
+    }
+
+    @Override
+    public E remove() {
+        if (root == null) throw new RuntimeException("queue element size = 0");
+        return poll();
+    }
+
+    /**
+     * 删除指定元素：先找到节点（O(n)），再把以它为根的子树摘下来，合并子树的孩子后与根节点连接
+     */
+    @Override
+    public boolean remove(E element) {
+        Node<E> node = findNode(element);
+        if (node == null) return false;
+        if (node == root){
+            poll();
+            return true;
+        }
+        //从父节点或者左兄弟上摘下
+        if (node.prev.child == node){
+            node.prev.child = node.sibling;
+        }else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) node.sibling.prev = node.prev;
+        node.prev = null;
+        node.sibling = null;
+        Node<E> subtree = mergePairs(node.child);
+        if (subtree != null) root = link(root, subtree);
+        --size;
+        return true;
+    }
+
+    /**
+     * 连接两个根节点：较大的根成为较小的根的最左边的孩子
+     */
+    private Node<E> link(Node<E> a, Node<E> b) {
+        if (compare(b.element, a.element) < 0){
+            Node<E> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null) a.child.prev = b;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * 两趟合并 first 以及它的所有右兄弟
+     * 第一趟从左到右两两合并，合并结果通过 sibling 逆序串起来；第二趟从右到左依次合并
+     */
+    private Node<E> mergePairs(Node<E> first) {
+        if (first == null) return null;
+        Node<E> pairs = null;
+        while (first != null){
+            Node<E> a = first,
+                    b = a.sibling;
+            a.prev = null;
+            if (b == null){
+                a.sibling = pairs;
+                pairs = a;
+                break;
+            }
+            first = b.sibling;
+            a.sibling = null;
+            b.sibling = null;
+            b.prev = null;
+            Node<E> merged = link(a, b);
+            merged.sibling = pairs;
+            pairs = merged;
+        }
+        Node<E> result = pairs;
+        pairs = pairs.sibling;
+        result.sibling = null;
+        while (pairs != null){
+            Node<E> next = pairs.sibling;
+            pairs.sibling = null;
+            result = link(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+
+    /**
+     * 查找与 element 比较结果为 0 的节点（按照比较器判断，而不是 equals，与 PriorityQueue 一致）
+     * 孩子都不小于父节点，element 比当前节点小时跳过它的孩子
+     */
+    private Node<E> findNode(E element) {
+        if (ObjectUtils.isEmpty(element) || root == null) return null;
+        ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()){
+            Node<E> node = stack.pollLast();
+            int cmp = compare(element, node.element);
+            if (cmp == 0) return node;
+            if (node.sibling != null) stack.push(node.sibling);
+            if (cmp > 0 && node.child != null) stack.push(node.child);
+        }
+        return null;
+    }
+
+    private int compare(E e1, E e2) {
+        if (comparator != null) return comparator.compare(e1, e2);
+        return ((Comparable<? super E>) e1).compareTo(e2);
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return findNode(element) != null;
+    }
+
+    @Override
+    public E peekFirst() {
+        return root == null ? null : root.element;
+    }
+
+    /**
+     * 返回优先级最低的元素（需要遍历所有叶子节点，O(n)）
+     */
+    @Override
+    public E peekLast() {
+        E last = null;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            E element = iterator.next();
+            if (last == null || compare(element, last) > 0) last = element;
+        }
+        return last;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    /**
+     * 深度优先遍历（不是优先级顺序）
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            private final ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+
+            {
+                if (root != null) stack.push(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node<E> node = stack.pollLast();
+                if (node.sibling != null) stack.push(node.sibling);
+                if (node.child != null) stack.push(node.child);
+                return node.element;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
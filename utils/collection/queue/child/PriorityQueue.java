@@ -1,15 +1,20 @@
 package utils.collection.queue.child;
 
+import utils.collection.Collection;
 import utils.collection.queue.AbstractQueue;
+import utils.objects.ObjectUtils;
 
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.NoSuchElementException;
 
 /**
- * 优先队列（采用堆实现）
+ * 优先队列（采用二叉堆实现）
+ * 堆的顺序在创建时确定，之后不会改变：
+ *   没有比较器时采用最小堆（元素需要实现 Comparable）
+ *   需要最大堆时传入反向的比较器，例如 Comparator.reverseOrder()
+ * 通过数组或者集合创建时采用自底向上的建堆方式（Floyd），时间复杂度为 O(n)
  */
 public class PriorityQueue<E> extends AbstractQueue<E> {
 
@@ -17,114 +22,98 @@ public class PriorityQueue<E> extends AbstractQueue<E> {
      * 比较器
      * 如果没有比较器，默认情况下采用最小堆存储
      */
-    private Comparator<E> comparator;
+    private final Comparator<? super E> comparator;
 
     private E[] elements;
 
     //默认容量
     private static final int DEFAULT_CAPACITY = 11;
 
-    /**
-     * 记录当前堆的类型（true表示最大堆，false表示最小堆）
-     */
-    private static boolean heapType = false;
-
     public PriorityQueue() {
-        this(null);
+        this((Comparator<? super E>) null);
     }
 
-    public PriorityQueue(Comparator<E> comparator){
+    public PriorityQueue(Comparator<? super E> comparator){
         this(comparator,DEFAULT_CAPACITY);
     }
 
-    public PriorityQueue(Comparator<E> comparator,int size) {
+    public PriorityQueue(Comparator<? super E> comparator,int size) {
+        if (size < 1) throw new IllegalArgumentException("Illegal Capacity: " + size);
         this.elements = (E[]) new Object[size];
         this.comparator = comparator;
     }
 
-    @Override
-    public boolean remove(E element) {
-        for (int i = 0; i < size; i++) {
-            int cmp = compare(element,elements[i]);
-            if (cmp == 0){
-                elements[i] = null;
-                if (i != size - 1){
-                    //删除的不是最后一个节点
-                    for (int j = i + 1; j < size; ++j){
-                        elements[j - 1] = elements[j];
-                    }
-                }
-                --size;
-                return true;
-            }
-        }
-        return false;
+    /**
+     * 注意：与 PriorityQueue(Comparator)、PriorityQueue(Collection) 同时存在时，new PriorityQueue<>(null) 有歧义，
+     * 需要写成 new PriorityQueue<>((Comparator<E>) null) 或者直接使用无参构造器
+     */
+    public PriorityQueue(E[] elements) {
+        this(null,elements);
     }
 
-    @Override
-    public boolean contains(E element) {
-        for (int i = 0; i < size; i++) {
-            int cmp = compare(element,elements[i]);
-            if (cmp == 0){
-                return true;
-            }
+    /**
+     * 通过数组建堆（O(n)，忽略 null 元素）
+     */
+    public PriorityQueue(Comparator<? super E> comparator,E[] elements) {
+        this.comparator = comparator;
+        this.elements = (E[]) new Object[Math.max(1,elements.length)];
+        for (E element : elements) {
+            if (!ObjectUtils.isEmpty(element)) this.elements[size++] = element;
         }
-        return false;
+        heapify();
     }
 
-    @Override
-    public void clear() {
-        for (int i = 0; i < size; i++) {
-            elements[i] = null;
-        }
+    public PriorityQueue(Collection<? extends E> collection) {
+        this(null,collection);
     }
 
-    @Override
-    public Iterator<E> iterator() {
-        return new QueueIterator();
+    /**
+     * 通过集合建堆（O(n)，忽略 null 元素）
+     */
+    public PriorityQueue(Comparator<? super E> comparator,Collection<? extends E> collection) {
+        this(comparator,(E[]) collection.toArray());
     }
 
-    final class QueueIterator implements Iterator<E>{
-
-        private int index;
-
-        @Override
-        public boolean hasNext() {
-            return index < size;
+    /**
+     * 自底向上建堆：从最后一个非叶子节点开始依次下滤
+     */
+    private void heapify(){
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i,elements[i]);
         }
+    }
 
-        @Override
-        public E next() {
-            return elements[index++];
+    @Override
+    public boolean add(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        if (size == elements.length){
+            //如果数组已经满了,动态扩容数组
+            enlargeCapacity(size + 1);
         }
+        siftUp(size++,element);
+        return true;
     }
 
+    /**
+     * 批量添加
+     * 添加的元素较多时（不少于原有元素个数）直接追加到数组末尾后重新建堆，否则逐个上滤
+     */
     @Override
-    public boolean add(E element) {
-        if (isEmpty()){
-            addRoot(element);
+    public boolean addAll(Collection<? extends E> collection) {
+        Object[] array = collection.toArray();
+        int length = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) array[length++] = array[i];
+        }
+        if (length == 0) return false;
+        if (size + length > elements.length) enlargeCapacity(size + length);
+        if (length >= size){
+            System.arraycopy(array,0,elements,size,length);
+            size += length;
+            heapify();
         }else {
-            if (size == elements.length){
-                //如果数组已经满了,动态扩容数组
-                enlargeCapacity();
-            }
-            //记录当前节点的下标
-            int index = size;
-            //记录父节点下标
-            int parentIndex = getParentIndex(index);
-            ++size;
-            elements[index] = element;
-            //如果存在父节点，并且不是同一个元素
-            while (parentIndex >= 0 && (index != parentIndex)){
-                int cmp = compare(elements[index],elements[parentIndex]);
-                if (cmp < 0){
-                    swit(index,parentIndex);
-                    index = parentIndex;
-                    parentIndex = getParentIndex(index);
-                }else {
-                    heapType = true;
-                    break;
-                }
+            for (int i = 0; i < length; i++) {
+                siftUp(size++,(E) array[i]);
             }
         }
         return true;
@@ -133,21 +122,26 @@ public class PriorityQueue<E> extends AbstractQueue<E> {
     /**
      * 动态扩容
      */
-    private void enlargeCapacity(){
+    private void enlargeCapacity(int minCapacity){
         int oldCapacity = elements.length;
         //动态扩容原先容量的1.5倍
-        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        int newCapacity = Math.max(minCapacity,oldCapacity + (oldCapacity >> 1));
         elements = Arrays.copyOf(elements, newCapacity);
     }
 
-    private void swit(int i1,int i2){
-        E temp = elements[i1];
-        elements[i1] = elements[i2];
-        elements[i2] = temp;
-    }
-
-    private void addRoot(E element){
-        elements[size++] = element;
+    /**
+     * 用 element 替换堆顶并下滤（只调整一次，比 poll 后再 add 少一次上滤）
+     * @return 返回原先的堆顶，队列为空时直接添加并返回null
+     */
+    public E replaceFirst(E element){
+        if (ObjectUtils.isEmpty(element)) throw new NullPointerException();
+        if (isEmpty()){
+            add(element);
+            return null;
+        }
+        E first = elements[0];
+        siftDown(0,element);
+        return first;
     }
 
     @Override
@@ -158,121 +152,141 @@ public class PriorityQueue<E> extends AbstractQueue<E> {
     @Override
     public E poll() {
         if (isEmpty()) return null;
-
         E removeElement = elements[0];
-        elements[0] = elements[size - 1];
-        elements[size - 1] = null;
-        --size;
+        int last = --size;
+        E moved = elements[last];
+        elements[last] = null;
+        if (last > 0) siftDown(0,moved);
+        return removeElement;
+    }
 
-        if (heapType){
-            repairMaxHeapProperty();
-        }else {
-            repairMinHeapProperty();
+    /**
+     * 删除一个与 element 比较结果为 0 的元素（按照比较器判断，而不是 equals）
+     */
+    @Override
+    public boolean remove(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (int i = 0; i < size; i++) {
+            if (compare(element,elements[i]) == 0){
+                removeAt(i);
+                return true;
+            }
         }
+        return false;
+    }
 
-        return removeElement;
+    /**
+     * 删除 index 处的元素，用最后一个元素填补空位后重新调整
+     */
+    private void removeAt(int index){
+        int last = --size;
+        E moved = elements[last];
+        elements[last] = null;
+        if (index == last) return;
+        siftDown(index,moved);
+        if (elements[index] == moved) siftUp(index,moved);
     }
 
     /**
-     * 删除后修补最大堆性质
+     * 上滤：父节点依次下移填补空位（hole），最后把 element 放入空位
      */
-    private void repairMaxHeapProperty(){
-        int index = 0;
-        while (index < size){
-            if (isLeftThanRight(index)){
-                //左节点大于右节点
-                swit(index,getLeftChildIndex(index));
-                index =getLeftChildIndex(index);
-            }else {
-                if (isRightChild(index)){
-                    swit(index,getRightChildIndex(index));
-                    index = getRightChildIndex(index);
-                }else break;
-            }
+    private void siftUp(int index,E element){
+        while (index > 0){
+            int parentIndex = getParentIndex(index);
+            E parent = elements[parentIndex];
+            if (compare(element,parent) >= 0) break;
+            elements[index] = parent;
+            index = parentIndex;
         }
+        elements[index] = element;
     }
 
     /**
-     * 删除后修补最小堆性质
+     * 下滤：每层只比较一次左右子节点，较小的子节点上移填补空位（hole），最后把 element 放入空位
      */
-    private void repairMinHeapProperty(){
-        int index = 0;
-        while (index < size){
-            if (isRightThanLeft(index)){
-                //左节点大于右节点
-                swit(index,getLeftChildIndex(index));
-                index =getLeftChildIndex(index);
-            }else {
-                if (isRightChild(index)){
-                    swit(index,getRightChildIndex(index));
-                    index = getRightChildIndex(index);
-                }else break;
+    private void siftDown(int index,E element){
+        //只有 index < half 的节点才有子节点
+        int half = size >>> 1;
+        while (index < half){
+            int childIndex = getLeftChildIndex(index),
+                rightIndex = childIndex + 1;
+            E child = elements[childIndex];
+            if (rightIndex < size && compare(elements[rightIndex],child) < 0){
+                child = elements[childIndex = rightIndex];
             }
+            if (compare(element,child) <= 0) break;
+            elements[index] = child;
+            index = childIndex;
         }
+        elements[index] = element;
     }
 
+    /**
+     * 是否存在与 element 比较结果为 0 的元素（按照比较器判断，而不是 equals）
+     */
     @Override
-    public E peekFirst() {
-        return elements[0];
+    public boolean contains(E element) {
+        if (ObjectUtils.isEmpty(element)) return false;
+        for (int i = 0; i < size; i++) {
+            if (compare(element,elements[i]) == 0) return true;
+        }
+        return false;
     }
 
     @Override
-    public E peekLast() {
-        if (isEmpty()) return null;
-        return elements[size - 1];
+    public void clear() {
+        Arrays.fill(elements,0,size,null);
+        size = 0;
     }
 
-    //计算当节点的左子树下标
-    private int getLeftChildIndex(int index){
-        return (2 * index) + 1;
+    @Override
+    public Iterator<E> iterator() {
+        return new QueueIterator();
     }
 
-    //计算当前节点的右子树下标
-    private int getRightChildIndex(int index){
-        return (2 * index) + 2;
-    }
+    final class QueueIterator implements Iterator<E>{
 
-    //计算当前节点的父节点下标
-    private int getParentIndex(int index){
-        return (index - 1) / 2;
-    }
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
 
-    //判断是否有左子树
-    private boolean isLeftChild(int index){
-        return getLeftChildIndex(index) <= size - 1;
+        @Override
+        public E next() {
+            if (index >= size) throw new NoSuchElementException();
+            return elements[index++];
+        }
     }
 
-    //判断是否有右子树
-    private boolean isRightChild(int index){
-        return getRightChildIndex(index) <= size - 1;
+    @Override
+    public E peekFirst() {
+        return elements[0];
     }
 
-    /**
-     * 左节点比右节点大
-     * @return
-     */
-    private boolean isLeftThanRight(int index){
-        if (isLeftChild(index)){
-            return isRightChild(index) ? compare(elements[getLeftChildIndex(index)],elements[getRightChildIndex(index)]) < 0 : true;
-        }else {
-            return false;
-        }
+    @Override
+    public E peekLast() {
+        if (isEmpty()) return null;
+        return elements[size - 1];
     }
 
-    /**
-     * 右子节点比左节点大
-     * @return
-     */
-    private boolean isRightThanLeft(int index){
-        if (isRightChild(index)){
-            return isLeftChild(index) ? compare(elements[getRightChildIndex(index)],elements[getLeftChildIndex(index)]) > 0 : true;
-        }else return false;
+    public Comparator<? super E> comparator() {
+        return comparator;
     }
 
+    //计算当节点的左子树下标
+    private int getLeftChildIndex(int index){
+        return (index << 1) + 1;
+    }
 
+    //计算当前节点的父节点下标
+    private int getParentIndex(int index){
+        return (index - 1) >>> 1;
+    }
 
     private int compare(E e1,E e2){
         if (comparator != null) return comparator.compare(e1,e2);
-        return ((Comparable)e1).compareTo(e2);
+        return ((Comparable<? super E>)e1).compareTo(e2);
     }
 }
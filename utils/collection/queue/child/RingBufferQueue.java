@@ -0,0 +1,277 @@
+package utils.collection.queue.child;
+
+import utils.collection.Collection;
+import utils.collection.queue.AbstractQueue;
+import utils.collection.queue.concurrent.Sequence;
+import utils.collection.queue.concurrent.WaitStrategy;
+import utils.collection.queue.ring.ProducerType;
+import utils.collection.queue.ring.RingBuffer;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * 基于 RingBuffer 的有界队列（单消费者，生产者可以是单线程或多线程）
+ * 环形数组中的 Slot 在创建时全部分配好，add/poll 只修改 Slot 中的引用，运行期间不会创建对象
+ * 消费者的序号作为 RingBuffer 的 gatingSequence，drain 时一次读取所有已发布的元素，最后只更新一次序号
+ * 需要多个消费者按依赖关系处理同一批事件时，直接使用 RingBuffer 与 BatchEventProcessor
+ * @param <E>
+ */
+public class RingBufferQueue<E> extends AbstractQueue<E> {
+
+    private static final class Slot<E> {
+        E value;
+    }
+
+    private final RingBuffer<Slot<E>> ringBuffer;
+
+    /**
+     * 消费者已经读取的最大序号
+     */
+    private final Sequence consumerSequence = new Sequence(-1);
+
+    private final WaitStrategy waitStrategy;
+
+    public RingBufferQueue(int capacity) {
+        this(capacity, ProducerType.MULTI, null);
+    }
+
+    /**
+     * @param capacity     容量（向上取整为2的n次方）
+     * @param producerType 单生产者或者多生产者
+     * @param waitStrategy put/take 的等待策略，null则使用 ParkingWaitStrategy
+     */
+    public RingBufferQueue(int capacity, ProducerType producerType, WaitStrategy waitStrategy) {
+        this.ringBuffer = new RingBuffer<>(Slot::new, capacity, producerType, waitStrategy);
+        this.ringBuffer.addGatingSequences(consumerSequence);
+        this.waitStrategy = ringBuffer.getWaitStrategy();
+    }
+
+    /**
+     * 非阻塞添加，队列满了返回false
+     */
+    @Override
+    public boolean add(E element) {
+        if (element == null) return false;
+        long sequence = ringBuffer.tryNext();
+        if (sequence < 0) return false;
+        ringBuffer.get(sequence).value = element;
+        ringBuffer.publish(sequence);
+        return true;
+    }
+
+    /**
+     * 添加元素，队列满了则根据等待策略进行等待
+     */
+    public void put(E element) {
+        if (element == null) throw new NullPointerException();
+        long sequence = ringBuffer.next();
+        ringBuffer.get(sequence).value = element;
+        ringBuffer.publish(sequence);
+    }
+
+    /**
+     * 批量添加 elements[offset, offset + length)，只抢占一次序号并一次发布
+     * 空位不足时只添加前面能够放下的部分（与其他环形队列一致）
+     * @return 返回成功添加的个数
+     */
+    public int offer(E[] elements, int offset, int length) {
+        if (length <= 0) return 0;
+        for (int i = 0; i < length; i++) {
+            if (elements[offset + i] == null) throw new NullPointerException();
+        }
+        long high;
+        int count;
+        do {
+            count = (int) Math.min(length, ringBuffer.remainingCapacity());
+            if (count <= 0) return 0;
+            //多个生产者时空位可能已经被其他生产者抢占，重新计算后再试
+            high = ringBuffer.tryNext(count);
+        } while (high < 0);
+        long low = high - count + 1;
+        for (int i = 0; i < count; i++) {
+            ringBuffer.get(low + i).value = elements[offset + i];
+        }
+        ringBuffer.publish(low, high);
+        return count;
+    }
+
+    /**
+     * 非阻塞弹出，队列为空时返回null（只能在消费者线程中调用）
+     */
+    @Override
+    public E poll() {
+        long next = consumerSequence.getPlain() + 1;
+        if (!ringBuffer.isAvailable(next)) return null;
+        Slot<E> slot = ringBuffer.get(next);
+        E element = slot.value;
+        slot.value = null;
+        consumerSequence.set(next);
+        return element;
+    }
+
+    /**
+     * 弹出元素，队列为空则根据等待策略进行等待
+     */
+    public E take() {
+        E element;
+        int counter = 0;
+        while ((element = poll()) == null){
+            counter = waitStrategy.idle(counter);
+        }
+        return element;
+    }
+
+    /**
+     * 批量弹出最多 limit 个已经发布的元素，交给 consumer 处理，处理完成后只更新一次消费者序号
+     * consumer 抛出异常时，消费者序号停在抛出异常的元素上，剩余的元素留给下一次弹出
+     * @return 返回弹出的元素个数
+     */
+    public int drain(Consumer<? super E> consumer, int limit) {
+        if (limit <= 0) return 0;
+        long next = consumerSequence.getPlain() + 1,
+             available = ringBuffer.getHighestPublishedSequence(next, Math.min(ringBuffer.getCursor(), next + limit - 1));
+        if (available < next) return 0;
+        long sequence = next;
+        try {
+            for (; sequence <= available; sequence++) {
+                Slot<E> slot = ringBuffer.get(sequence);
+                E element = slot.value;
+                slot.value = null;
+                consumer.accept(element);
+            }
+        } finally {
+            //consumer 抛出异常时，已经取出的元素（包括抛出异常的那一个）也要发布
+            consumerSequence.set(Math.min(sequence, available));
+        }
+        return (int) (available - next + 1);
+    }
+
+    /**
+     * 批量弹出最多 maxElements 个元素，添加到 collection 中
+     * @return 返回弹出的元素个数
+     */
+    public int drainTo(Collection<? super E> collection, int maxElements) {
+        return drain(collection::add, maxElements);
+    }
+
+    @Override
+    public E remove() {
+        E element = poll();
+        if (element == null) throw new RuntimeException("queue element size = 0");
+        return element;
+    }
+
+    /**
+     * 只支持从头部删除元素
+     */
+    @Override
+    public boolean remove(E element) {
+        throw new UnsupportedOperationException("ring buffer queue only supports poll()");
+    }
+
+    @Override
+    public E peekFirst() {
+        long next = consumerSequence.getPlain() + 1;
+        if (!ringBuffer.isAvailable(next)) return null;
+        return ringBuffer.get(next).value;
+    }
+
+    /**
+     * 返回最后发布的元素（并发修改时只是一个近似值）
+     */
+    @Override
+    public E peekLast() {
+        long consumer = consumerSequence.get(),
+             last = ringBuffer.getHighestPublishedSequence(consumer + 1, ringBuffer.getCursor());
+        if (last <= consumer) return null;
+        return ringBuffer.get(last).value;
+    }
+
+    public int capacity() {
+        return ringBuffer.getBufferSize();
+    }
+
+    /**
+     * 元素个数（并发修改时只是一个近似值，多生产者时包含已经抢占但还没有发布的位置）
+     */
+    @Override
+    public int size() {
+        long consumer = consumerSequence.get(),
+             producer = ringBuffer.getCursor();
+        return (int) Math.max(0, Math.min(producer - consumer, ringBuffer.getBufferSize()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !ringBuffer.isAvailable(consumerSequence.get() + 1);
+    }
+
+    /**
+     * 弱一致性：只检查调用时刻已经发布的元素
+     */
+    @Override
+    public boolean contains(E element) {
+        if (element == null) return false;
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            if (element.equals(iterator.next())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 清空队列（需要在消费者线程中调用）
+     */
+    @Override
+    public void clear() {
+        while (drain(element -> {}, ringBuffer.getBufferSize()) > 0);
+    }
+
+    /**
+     * 弱一致性迭代器：遍历创建时刻已经发布的元素，不会弹出元素
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            private long sequence = consumerSequence.get() + 1;
+            private final long end = ringBuffer.getHighestPublishedSequence(sequence, ringBuffer.getCursor());
+            private E next = advance();
+
+            private E advance() {
+                E element = null;
+                while (element == null && sequence <= end){
+                    element = ringBuffer.get(sequence++).value;
+                }
+                return element;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (next == null) throw new NoSuchElementException();
+                E element = next;
+                next = advance();
+                return element;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<E> iterator = iterator();
+        while (iterator.hasNext()){
+            sb.append(iterator.next());
+            if (iterator.hasNext()) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package utils.collection.queue.child;
+
+import utils.collection.queue.AbstractRingQueue;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存行填充：子类的字段排在父类字段之后，通过继承保证 producerLimit、producerCache
+ * 与父类的只读字段、与彼此都不在同一个缓存行上（与 Sequence 中的 LhsPadding/RhsPadding 相同）
+ */
+abstract class SpscLhsPadding<E> extends AbstractRingQueue<E> {
+    long p01, p02, p03, p04, p05, p06, p07;
+
+    SpscLhsPadding(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+}
+
+abstract class SpscProducerFields<E> extends SpscLhsPadding<E> {
+    /**
+     * 生产者可以写入的上限（缓存的 consumerIndex + capacity），只由生产者访问
+     */
+    long producerLimit;
+
+    SpscProducerFields(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+}
+
+abstract class SpscMidPadding<E> extends SpscProducerFields<E> {
+    long p11, p12, p13, p14, p15, p16, p17;
+
+    SpscMidPadding(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+}
+
+abstract class SpscConsumerFields<E> extends SpscMidPadding<E> {
+    /**
+     * 缓存的 producerIndex，只由消费者访问
+     */
+    long producerCache;
+
+    SpscConsumerFields(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+}
+
+abstract class SpscRhsPadding<E> extends SpscConsumerFields<E> {
+    long p21, p22, p23, p24, p25, p26, p27;
+
+    SpscRhsPadding(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+}
+
+/**
+ * 单生产者单消费者（SPSC）有界无锁队列
+ * 只能有一个线程调用 add/put/offer，一个线程调用 poll/take/drain
+ * 生产者缓存了消费者序号（producerLimit），消费者缓存了生产者序号（producerCache），
+ * 只有缓存的值用完了才会去读取对方的序号；两个缓存字段通过父类中的填充各自独占缓存行，
+ * producerIndex/consumerIndex 是带填充的 Sequence，大部分操作只访问自己的缓存行
+ * @param <E>
+ */
+public class SpscArrayQueue<E> extends SpscRhsPadding<E> {
+
+    public SpscArrayQueue(int capacity) {
+        this(capacity, null);
+    }
+
+    public SpscArrayQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (element == null) throw new NullPointerException();
+        long tail = producerIndex.getPlain();
+        if (tail >= producerLimit){
+            producerLimit = consumerIndex.get() + capacity;
+            if (tail >= producerLimit) return false;
+        }
+        buffer[(int) (tail & mask)] = element;
+        //release 写入，消费者读取到新的 producerIndex 时一定能看到元素
+        producerIndex.set(tail + 1);
+        return true;
+    }
+
+    /**
+     * 批量添加，只读取一次 consumerIndex，只发布一次 producerIndex
+     */
+    @Override
+    public int offer(E[] elements, int offset, int length) {
+        if (length <= 0) return 0;
+        checkNotNull(elements, offset, length);
+        long tail = producerIndex.getPlain();
+        if (tail + length > producerLimit){
+            producerLimit = consumerIndex.get() + capacity;
+        }
+        int count = (int) Math.min(length, producerLimit - tail);
+        if (count <= 0) return 0;
+        for (int i = 0; i < count; i++) {
+            buffer[(int) ((tail + i) & mask)] = elements[offset + i];
+        }
+        producerIndex.set(tail + count);
+        return count;
+    }
+
+    @Override
+    public E poll() {
+        long head = consumerIndex.getPlain();
+        if (head >= producerCache){
+            producerCache = producerIndex.get();
+            if (head >= producerCache) return null;
+        }
+        int index = (int) (head & mask);
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        consumerIndex.set(head + 1);
+        return element;
+    }
+
+    /**
+     * 批量弹出，只读取一次 producerIndex，只发布一次 consumerIndex
+     */
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long head = consumerIndex.getPlain();
+        if (head + limit > producerCache){
+            producerCache = producerIndex.get();
+        }
+        int count = (int) Math.min(limit, producerCache - head);
+        if (count <= 0) return 0;
+        int i = 0;
+        try {
+            for (; i < count; i++) {
+                int index = (int) ((head + i) & mask);
+                E element = (E) buffer[index];
+                buffer[index] = null;
+                consumer.accept(element);
+            }
+        } finally {
+            //consumer 抛出异常时，已经取出的元素也要发布
+            consumerIndex.set(head + Math.min(i + 1, count));
+        }
+        return count;
+    }
+
+    @Override
+    public E peekFirst() {
+        long head = consumerIndex.getPlain();
+        if (head >= producerCache){
+            producerCache = producerIndex.get();
+            if (head >= producerCache) return null;
+        }
+        return (E) buffer[(int) (head & mask)];
+    }
+}
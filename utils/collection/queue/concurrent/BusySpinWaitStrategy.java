@@ -0,0 +1,14 @@
+package utils.collection.queue.concurrent;
+
+/**
+ * 忙等待策略
+ * 一直占用CPU自旋，延迟最低，适合线程绑定在独立CPU核心上的场景
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public int idle(int counter) {
+        Thread.onSpinWait();
+        return counter + 1;
+    }
+}
@@ -0,0 +1,44 @@
+package utils.collection.queue.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 休眠等待策略（默认）
+ * 依次进行：自旋 -> Thread.yield() -> LockSupport.parkNanos()，休眠时间逐渐增大直到 maxParkNanos
+ * CPU占用最低，但唤醒延迟最高
+ */
+public class ParkingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 100;
+
+    private static final long MIN_PARK_NANOS = 1_000;
+
+    /**
+     * 最长的休眠时间
+     */
+    private final long maxParkNanos;
+
+    public ParkingWaitStrategy() {
+        this(1_000_000);
+    }
+
+    public ParkingWaitStrategy(long maxParkNanos) {
+        this.maxParkNanos = Math.max(maxParkNanos, MIN_PARK_NANOS);
+    }
+
+    @Override
+    public int idle(int counter) {
+        if (counter < SPIN_TRIES){
+            Thread.onSpinWait();
+        }else if (counter < SPIN_TRIES + YIELD_TRIES){
+            Thread.yield();
+        }else {
+            //休眠时间随等待次数成倍增长
+            int shift = Math.min(counter - SPIN_TRIES - YIELD_TRIES, 20);
+            LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << shift, maxParkNanos));
+        }
+        return counter + 1;
+    }
+}
@@ -0,0 +1,93 @@
+package utils.collection.queue.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 左侧填充，避免 value 与前面的对象位于同一个缓存行
+ */
+class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class Value extends LhsPadding {
+    protected volatile long value;
+}
+
+/**
+ * 右侧填充，避免 value 与后面的对象位于同一个缓存行
+ */
+class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * 带缓存行填充的序号（long）
+ * 生产者与消费者分别修改各自的序号，填充可以避免两者在同一个缓存行上产生伪共享
+ * 提供 plain / release(ordered) / volatile 三种写入方式，以及CAS操作
+ */
+public class Sequence extends RhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence() {
+        this(0);
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    /**
+     * volatile 读
+     */
+    public long get() {
+        return value;
+    }
+
+    /**
+     * 普通读（只有当前线程会修改该序号时使用）
+     */
+    public long getPlain() {
+        return (long) VALUE.get(this);
+    }
+
+    /**
+     * release 写（ordered），保证之前的写入对读取到该值的线程可见，开销比 volatile 写小
+     */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    /**
+     * volatile 写
+     */
+    public void setVolatile(long value) {
+        this.value = value;
+    }
+
+    public boolean compareAndSet(long expectedValue, long newValue) {
+        return VALUE.compareAndSet(this, expectedValue, newValue);
+    }
+
+    /**
+     * 原子增加
+     * @return 返回增加后的值
+     */
+    public long addAndGet(long increment) {
+        return (long) VALUE.getAndAdd(this, increment) + increment;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
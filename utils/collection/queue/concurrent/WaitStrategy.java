@@ -0,0 +1,17 @@
+package utils.collection.queue.concurrent;
+
+/**
+ * 等待策略
+ * 当条件不满足（队列满了/队列为空/依赖的序号还没有到达）时，在循环中调用 idle 进行等待：
+ *   int counter = 0;
+ *   while (!condition()) counter = waitStrategy.idle(counter);
+ */
+public interface WaitStrategy {
+
+    /**
+     * 进行一次等待
+     * @param counter 当前已经等待的次数（第一次为0）
+     * @return 返回下一次调用时传入的 counter
+     */
+    int idle(int counter);
+}
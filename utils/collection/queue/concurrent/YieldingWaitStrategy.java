@@ -0,0 +1,20 @@
+package utils.collection.queue.concurrent;
+
+/**
+ * 让步等待策略
+ * 先自旋一定次数，之后每次调用 Thread.yield() 让出CPU
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public int idle(int counter) {
+        if (counter < SPIN_TRIES){
+            Thread.onSpinWait();
+        }else {
+            Thread.yield();
+        }
+        return counter + 1;
+    }
+}
@@ -0,0 +1,94 @@
+package utils.collection.queue.ring;
+
+import utils.collection.queue.concurrent.Sequence;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量事件处理器（在独立线程中运行）
+ * 每次等待屏障返回可以处理的最大序号，一次处理完这一批事件后才更新自己的序号，
+ * 生产者与下游消费者通过该序号判断事件是否已经处理完成
+ * 使用方式：
+ *   RingBuffer<Event> ringBuffer = new RingBuffer<>(Event::new, 1024, ProducerType.MULTI, new YieldingWaitStrategy());
+ *   BatchEventProcessor<Event> a = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handlerA);
+ *   BatchEventProcessor<Event> b = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(), handlerB);
+ *   BatchEventProcessor<Event> c = new BatchEventProcessor<>(ringBuffer, ringBuffer.newBarrier(a.getSequence(), b.getSequence()), handlerC);
+ *   ringBuffer.addGatingSequences(c.getSequence());
+ * @param <T>
+ */
+public class BatchEventProcessor<T> implements Runnable {
+
+    private static final int IDLE = 0;
+    private static final int HALTED = 1;
+    private static final int RUNNING = 2;
+
+    private final RingBuffer<T> ringBuffer;
+
+    private final SequenceBarrier barrier;
+
+    private final EventHandler<? super T> handler;
+
+    /**
+     * 已经处理完成的序号
+     */
+    private final Sequence sequence = new Sequence(-1);
+
+    /**
+     * IDLE -> RUNNING -> (HALTED) -> IDLE，在 run() 之前调用 halt() 时 run() 直接返回
+     */
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    public BatchEventProcessor(RingBuffer<T> ringBuffer, SequenceBarrier barrier, EventHandler<? super T> handler) {
+        this.ringBuffer = ringBuffer;
+        this.barrier = barrier;
+        this.handler = handler;
+    }
+
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    /**
+     * 停止处理（当前批次处理完成后退出 run；还没有开始运行时，下一次 run() 直接返回）
+     */
+    public void halt() {
+        state.set(HALTED);
+        barrier.alert();
+    }
+
+    public boolean isRunning() {
+        return state.get() != IDLE;
+    }
+
+    /**
+     * 处理事件，直到调用 halt()
+     * handler 抛出的异常会终止处理器，抛出异常的事件视为已经处理，避免生产者被永久阻塞
+     */
+    @Override
+    public void run() {
+        if (!state.compareAndSet(IDLE, RUNNING)){
+            if (state.get() == RUNNING) throw new IllegalStateException("processor is already running");
+            //启动之前已经调用了 halt()，不再处理
+            state.set(IDLE);
+            return;
+        }
+        barrier.clearAlert();
+        long next = sequence.get() + 1;
+        try {
+            while (state.get() == RUNNING){
+                long available = barrier.waitFor(next);
+                if (available < next) continue;
+                while (next <= available){
+                    handler.onEvent(ringBuffer.get(next), next, next == available);
+                    ++next;
+                }
+                sequence.set(available);
+            }
+        } catch (RuntimeException e) {
+            sequence.set(next);
+            throw e;
+        } finally {
+            state.set(IDLE);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package utils.collection.queue.ring;
+
+/**
+ * 事件处理器
+ * @param <T>
+ */
+public interface EventHandler<T> {
+
+    /**
+     * 处理一个事件
+     * @param event      事件（环形数组中预先分配的对象，处理完成后会被生产者复用，不要保存引用）
+     * @param sequence   事件的序号
+     * @param endOfBatch 是否是当前批次的最后一个事件（可以在这里进行批量提交等操作）
+     */
+    void onEvent(T event, long sequence, boolean endOfBatch);
+}
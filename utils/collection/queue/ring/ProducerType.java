@@ -0,0 +1,15 @@
+package utils.collection.queue.ring;
+
+/**
+ * 生产者类型
+ */
+public enum ProducerType {
+    /**
+     * 只有一个线程发布事件，抢占序号时不需要CAS
+     */
+    SINGLE,
+    /**
+     * 多个线程同时发布事件
+     */
+    MULTI,
+}
@@ -0,0 +1,295 @@
+package utils.collection.queue.ring;
+
+import utils.collection.queue.concurrent.ParkingWaitStrategy;
+import utils.collection.queue.concurrent.Sequence;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * 预先分配事件对象的环形数组（Disruptor 模式）
+ * 创建时通过 factory 填满整个数组，生产者与消费者之间传递的是序号而不是对象，运行期间不会产生垃圾
+ * 发布流程：
+ *   long sequence = ringBuffer.next();   //抢占序号（没有空位时根据等待策略等待）
+ *   ringBuffer.get(sequence).setValue(x); //修改预先分配的事件
+ *   ringBuffer.publish(sequence);         //发布，消费者可见
+ * 生产者不会覆盖 gatingSequences（最下游的消费者序号）中最小值所在的位置
+ * @param <T>
+ */
+public class RingBuffer<T> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final Sequence[] EMPTY_SEQUENCES = new Sequence[0];
+
+    private final Object[] entries;
+
+    private final int bufferSize;
+
+    private final int mask;
+
+    private final int indexShift;
+
+    private final ProducerType producerType;
+
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 单生产者：已经发布的最大序号
+     * 多生产者：已经被抢占的最大序号（是否发布需要查看 availableBuffer）
+     */
+    private final Sequence cursor = new Sequence(-1);
+
+    /**
+     * 最下游消费者的序号，生产者不能超过其中的最小值一圈
+     */
+    private volatile Sequence[] gatingSequences = EMPTY_SEQUENCES;
+
+    /**
+     * 单生产者：下一次抢占前的序号与缓存的 gatingSequences 最小值（只有生产者线程访问）
+     */
+    private long nextValue = -1;
+    private long cachedGating = -1;
+
+    /**
+     * 多生产者：缓存的 gatingSequences 最小值
+     */
+    private final Sequence gatingSequenceCache = new Sequence(-1);
+
+    /**
+     * 多生产者：每个位置最后一次发布时的圈数（sequence >>> indexShift）
+     */
+    private final int[] availableBuffer;
+
+    public RingBuffer(Supplier<T> factory, int bufferSize) {
+        this(factory, bufferSize, ProducerType.MULTI, null);
+    }
+
+    /**
+     * @param factory      事件工厂，用于预先填满数组
+     * @param bufferSize   容量（向上取整为2的n次方）
+     * @param producerType 单生产者或者多生产者
+     * @param waitStrategy 生产者与消费者的等待策略，null则使用 ParkingWaitStrategy
+     */
+    public RingBuffer(Supplier<T> factory, int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || bufferSize > (1 << 30)) throw new IllegalArgumentException("Illegal bufferSize: " + bufferSize);
+        if (factory == null || producerType == null) throw new NullPointerException();
+        this.bufferSize = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.mask = this.bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(this.bufferSize);
+        this.producerType = producerType;
+        this.waitStrategy = waitStrategy == null ? new ParkingWaitStrategy() : waitStrategy;
+        this.entries = new Object[this.bufferSize];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = factory.get();
+        }
+        if (producerType == ProducerType.MULTI){
+            availableBuffer = new int[this.bufferSize];
+            Arrays.fill(availableBuffer, -1);
+        }else {
+            availableBuffer = null;
+        }
+    }
+
+    /**
+     * 返回序号对应的事件
+     */
+    public T get(long sequence) {
+        return (T) entries[(int) (sequence & mask)];
+    }
+
+    /**
+     * 抢占下一个序号，没有空位时根据等待策略等待
+     */
+    public long next() {
+        return next(1);
+    }
+
+    /**
+     * 批量抢占 n 个序号
+     * @return 返回抢占到的最大序号，抢占到的范围为 [返回值 - n + 1, 返回值]
+     */
+    public long next(int n) {
+        if (n < 1 || n > bufferSize) throw new IllegalArgumentException("n must be > 0 and <= bufferSize");
+        return producerType == ProducerType.SINGLE ? nextSingle(n, true) : nextMulti(n, true);
+    }
+
+    /**
+     * 尝试抢占下一个序号，没有空位时返回 -1
+     */
+    public long tryNext() {
+        return tryNext(1);
+    }
+
+    /**
+     * 尝试批量抢占 n 个序号，空位不足时返回 -1
+     */
+    public long tryNext(int n) {
+        if (n < 1 || n > bufferSize) throw new IllegalArgumentException("n must be > 0 and <= bufferSize");
+        return producerType == ProducerType.SINGLE ? nextSingle(n, false) : nextMulti(n, false);
+    }
+
+    private long nextSingle(int n, boolean wait) {
+        long next = nextValue + n,
+             wrapPoint = next - bufferSize;
+        if (wrapPoint > cachedGating){
+            long minimum;
+            int counter = 0;
+            while (wrapPoint > (minimum = minimumGating(nextValue))){
+                if (!wait) return -1;
+                counter = waitStrategy.idle(counter);
+            }
+            cachedGating = minimum;
+        }
+        nextValue = next;
+        return next;
+    }
+
+    private long nextMulti(int n, boolean wait) {
+        int counter = 0;
+        while (true){
+            long current = cursor.get(),
+                 next = current + n,
+                 wrapPoint = next - bufferSize;
+            if (wrapPoint > gatingSequenceCache.get()){
+                long minimum = minimumGating(current);
+                if (wrapPoint > minimum){
+                    if (!wait) return -1;
+                    counter = waitStrategy.idle(counter);
+                    continue;
+                }
+                gatingSequenceCache.set(minimum);
+            }else if (cursor.compareAndSet(current, next)){
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 发布序号
+     */
+    public void publish(long sequence) {
+        if (producerType == ProducerType.SINGLE){
+            cursor.set(sequence);
+        }else {
+            setAvailable(sequence);
+        }
+    }
+
+    /**
+     * 批量发布 [low, high]
+     */
+    public void publish(long low, long high) {
+        if (producerType == ProducerType.SINGLE){
+            cursor.set(high);
+        }else {
+            for (long sequence = low; sequence <= high; sequence++) {
+                setAvailable(sequence);
+            }
+        }
+    }
+
+    private void setAvailable(long sequence) {
+        AVAILABLE.setRelease(availableBuffer, (int) (sequence & mask), (int) (sequence >>> indexShift));
+    }
+
+    /**
+     * 序号是否已经发布
+     */
+    public boolean isAvailable(long sequence) {
+        if (producerType == ProducerType.SINGLE) return sequence <= cursor.get();
+        return (int) AVAILABLE.getAcquire(availableBuffer, (int) (sequence & mask)) == (int) (sequence >>> indexShift);
+    }
+
+    /**
+     * 返回 [low, available] 中连续发布的最大序号
+     * 多生产者时 cursor 只代表抢占进度，中间可能存在还没有发布的序号
+     */
+    public long getHighestPublishedSequence(long low, long available) {
+        if (producerType == ProducerType.SINGLE) return available;
+        for (long sequence = low; sequence <= available; sequence++) {
+            if (!isAvailable(sequence)) return sequence - 1;
+        }
+        return available;
+    }
+
+    /**
+     * 创建序号屏障
+     * @param dependents 依赖的上游消费者序号，为空时只依赖生产者的发布进度
+     */
+    public SequenceBarrier newBarrier(Sequence... dependents) {
+        return new SequenceBarrier(this, waitStrategy, cursor, dependents);
+    }
+
+    /**
+     * 添加最下游消费者的序号，生产者不会覆盖它们还没有处理的事件
+     * 新添加的序号会被设置为当前的 cursor（不会处理添加之前已经发布的事件）
+     */
+    public synchronized void addGatingSequences(Sequence... sequences) {
+        long current = cursor.get();
+        for (Sequence sequence : sequences) {
+            sequence.set(current);
+        }
+        Sequence[] oldSequences = gatingSequences,
+                   newSequences = Arrays.copyOf(oldSequences, oldSequences.length + sequences.length);
+        System.arraycopy(sequences, 0, newSequences, oldSequences.length, sequences.length);
+        gatingSequences = newSequences;
+    }
+
+    public synchronized boolean removeGatingSequence(Sequence sequence) {
+        Sequence[] oldSequences = gatingSequences;
+        for (int i = 0; i < oldSequences.length; i++) {
+            if (oldSequences[i] == sequence){
+                Sequence[] newSequences = new Sequence[oldSequences.length - 1];
+                System.arraycopy(oldSequences, 0, newSequences, 0, i);
+                System.arraycopy(oldSequences, i + 1, newSequences, i, newSequences.length - i);
+                gatingSequences = newSequences;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * gatingSequences 中的最小值，没有消费者时返回 defaultValue
+     */
+    private long minimumGating(long defaultValue) {
+        Sequence[] sequences = gatingSequences;
+        if (sequences.length == 0) return defaultValue;
+        long minimum = Long.MAX_VALUE;
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * 生产者的进度（多生产者时为已经抢占的最大序号）
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public ProducerType getProducerType() {
+        return producerType;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * 剩余的空位（并发修改时只是一个近似值）
+     */
+    public long remainingCapacity() {
+        long produced = producerType == ProducerType.SINGLE ? nextValue : cursor.get();
+        return bufferSize - (produced - minimumGating(produced));
+    }
+}
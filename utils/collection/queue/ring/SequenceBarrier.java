@@ -0,0 +1,67 @@
+package utils.collection.queue.ring;
+
+import utils.collection.queue.concurrent.Sequence;
+import utils.collection.queue.concurrent.WaitStrategy;
+
+/**
+ * 序号屏障
+ * 消费者通过屏障等待事件可以被处理：事件已经发布，并且所依赖的上游消费者都已经处理完成
+ * 多个消费者通过屏障组成依赖图（例如：A、B 并行处理，C 等待 A、B 都处理完成）
+ */
+public class SequenceBarrier {
+
+    private final RingBuffer<?> ringBuffer;
+
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * 依赖的序号（没有上游消费者时只依赖 cursor）
+     */
+    private final Sequence[] dependents;
+
+    private volatile boolean alerted;
+
+    SequenceBarrier(RingBuffer<?> ringBuffer, WaitStrategy waitStrategy, Sequence cursor, Sequence[] dependents) {
+        this.ringBuffer = ringBuffer;
+        this.waitStrategy = waitStrategy;
+        this.dependents = dependents.length == 0 ? new Sequence[]{cursor} : dependents.clone();
+    }
+
+    /**
+     * 等待 sequence 可以被处理
+     * @return 返回当前可以处理的最大序号（可能大于 sequence，用于批量处理）；
+     *         被 alert 或者多生产者还没有发布完成时，可能小于 sequence
+     */
+    public long waitFor(long sequence) {
+        long available;
+        int counter = 0;
+        while ((available = minimumDependent()) < sequence){
+            if (alerted) return available;
+            counter = waitStrategy.idle(counter);
+        }
+        return ringBuffer.getHighestPublishedSequence(sequence, available);
+    }
+
+    private long minimumDependent() {
+        long minimum = Long.MAX_VALUE;
+        for (Sequence dependent : dependents) {
+            minimum = Math.min(minimum, dependent.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * 通知等待的消费者停止等待
+     */
+    public void alert() {
+        alerted = true;
+    }
+
+    public void clearAlert() {
+        alerted = false;
+    }
+
+    public boolean isAlerted() {
+        return alerted;
+    }
+}
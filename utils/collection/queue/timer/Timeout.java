@@ -0,0 +1,99 @@
+package utils.collection.queue.timer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 定时任务的句柄，通过它取消任务（O(1)）
+ * 同时也是时间轮槽位中双向链表的节点，添加定时任务时不需要额外创建节点
+ */
+public final class Timeout {
+
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static final int INIT = 0;
+    static final int CANCELLED = 1;
+    static final int EXPIRED = 2;
+
+    private final Runnable task;
+
+    /**
+     * 到期的刻度
+     */
+    final long deadlineTick;
+
+    /**
+     * 所属的定时器，单独使用 TimingWheel 时为null
+     */
+    final WheelTimer timer;
+
+    private volatile int state = INIT;
+
+    /**
+     * 所在的槽位以及槽位链表中的前后节点（只由时间轮所在的线程访问）
+     */
+    TimingWheel.Bucket bucket;
+    Timeout prev;
+    Timeout next;
+
+    Timeout(Runnable task, long deadlineTick, WheelTimer timer) {
+        this.task = task;
+        this.deadlineTick = deadlineTick;
+        this.timer = timer;
+    }
+
+    public Runnable task() {
+        return task;
+    }
+
+    /**
+     * 到期的刻度（从时间轮的第 0 个刻度开始计算）
+     */
+    public long deadlineTick() {
+        return deadlineTick;
+    }
+
+    /**
+     * 取消任务
+     * @return 任务已经到期或者已经被取消时返回false
+     */
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, INIT, CANCELLED)) return false;
+        if (timer != null){
+            //交给定时器的工作线程从槽位中移除
+            timer.cancelled(this);
+        }else if (bucket != null){
+            bucket.wheel.remove(this);
+        }
+        return true;
+    }
+
+    /**
+     * 标记为已经到期
+     * @return 已经被取消时返回false
+     */
+    boolean expire() {
+        return STATE.compareAndSet(this, INIT, EXPIRED);
+    }
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+
+    @Override
+    public String toString() {
+        return "Timeout{deadlineTick=" + deadlineTick + ", state=" + (state == INIT ? "INIT" : state == CANCELLED ? "CANCELLED" : "EXPIRED") + "}";
+    }
+}
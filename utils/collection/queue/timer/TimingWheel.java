@@ -0,0 +1,254 @@
+package utils.collection.queue.timer;
+
+import java.util.function.Consumer;
+
+/**
+ * 分层时间轮（单线程使用，多线程场景使用 WheelTimer）
+ * 每一层有 wheelSize 个槽位，第 l 层的每个槽位代表 wheelSize^l 个刻度：
+ *   添加：根据剩余的刻度选择层，根据到期刻度选择槽位，插入槽位的双向链表，O(1)
+ *   取消：从槽位的双向链表中删除，O(1)
+ *   推进：每前进一个刻度，处理第 0 层对应槽位中的任务；
+ *         当刻度是 wheelSize^l 的整数倍时，把第 l 层对应槽位中的任务重新放入下面的层（cascade）
+ * 每个任务最多被移动 levels - 1 次，与任务的个数无关
+ * 超出 wheelSize^levels 个刻度的任务先放在最高层最远的槽位，到达后再重新计算（到达第 0 层时也会检查到期刻度，不会提前执行）
+ */
+public class TimingWheel {
+
+    /**
+     * 槽位（任务的双向链表）
+     */
+    static final class Bucket {
+        final TimingWheel wheel;
+        Timeout head;
+        Timeout tail;
+
+        Bucket(TimingWheel wheel) {
+            this.wheel = wheel;
+        }
+
+        void addLast(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null){
+                head = timeout;
+            }else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void unlink(Timeout timeout) {
+            Timeout prev = timeout.prev,
+                    next = timeout.next;
+            if (prev == null){
+                head = next;
+            }else {
+                prev.next = next;
+            }
+            if (next == null){
+                tail = prev;
+            }else {
+                next.prev = prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * 摘下整个链表
+         */
+        Timeout detach() {
+            Timeout first = head;
+            head = null;
+            tail = null;
+            return first;
+        }
+    }
+
+    private final int bits;
+
+    private final int mask;
+
+    private final int levels;
+
+    /**
+     * 能够直接放入的最大刻度差（wheelSize^levels）
+     */
+    private final long span;
+
+    private final Bucket[][] buckets;
+
+    /**
+     * 已经处理完成的刻度
+     */
+    private long currentTick;
+
+    private int size;
+
+    public TimingWheel() {
+        this(64, 4, 0);
+    }
+
+    /**
+     * @param wheelSize 每一层的槽位数（向上取整为2的n次方）
+     * @param levels    层数
+     * @param startTick 起始刻度
+     */
+    public TimingWheel(int wheelSize, int levels, long startTick) {
+        if (wheelSize < 2 || wheelSize > (1 << 16)) throw new IllegalArgumentException("Illegal wheelSize: " + wheelSize);
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.bits = Integer.numberOfTrailingZeros(size);
+        if (levels < 1 || bits * levels > 62) throw new IllegalArgumentException("Illegal levels: " + levels);
+        this.mask = size - 1;
+        this.levels = levels;
+        this.span = 1L << (bits * levels);
+        this.currentTick = startTick;
+        this.buckets = new Bucket[levels][size];
+        for (int l = 0; l < levels; l++) {
+            for (int i = 0; i < size; i++) {
+                buckets[l][i] = new Bucket(this);
+            }
+        }
+    }
+
+    /**
+     * 添加一个在 deadlineTick 到期的任务（已经过去的刻度会在下一个刻度到期）
+     */
+    public Timeout schedule(Runnable task, long deadlineTick) {
+        if (task == null) throw new NullPointerException();
+        Timeout timeout = new Timeout(task, deadlineTick, null);
+        add(timeout);
+        return timeout;
+    }
+
+    void add(Timeout timeout) {
+        place(timeout, Math.max(timeout.deadlineTick, currentTick + 1));
+        ++size;
+    }
+
+    /**
+     * 根据剩余的刻度选择层与槽位
+     */
+    private void place(Timeout timeout, long expiration) {
+        long remaining = expiration - currentTick;
+        if (remaining >= span){
+            expiration = currentTick + span - 1;
+            remaining = span - 1;
+        }
+        int level = 0;
+        while (level < levels - 1 && remaining >= (1L << (bits * (level + 1)))){
+            ++level;
+        }
+        buckets[level][(int) ((expiration >>> (bits * level)) & mask)].addLast(timeout);
+    }
+
+    /**
+     * 从时间轮中移除
+     */
+    void remove(Timeout timeout) {
+        Bucket bucket = timeout.bucket;
+        if (bucket == null) return;
+        bucket.unlink(timeout);
+        --size;
+    }
+
+    /**
+     * 推进到 tick，依次把到期的任务交给 expired 处理（任务已经被标记为到期，不能再取消）
+     */
+    public void advanceTo(long tick, Consumer<Timeout> expired) {
+        while (currentTick < tick){
+            if (size == 0){
+                //没有任务时直接跳过
+                currentTick = tick;
+                return;
+            }
+            ++currentTick;
+            for (int l = levels - 1; l >= 1; l--) {
+                int shift = bits * l;
+                if ((currentTick & ((1L << shift) - 1)) == 0){
+                    cascade(buckets[l][(int) ((currentTick >>> shift) & mask)]);
+                }
+            }
+            //先把整个链表从槽位中摘下并断开与槽位的关联，再执行回调：
+            //回调中取消同一刻度的其他任务时，不会再去修改已经摘下的链表
+            Timeout head = null,
+                    last = null,
+                    timeout = buckets[0][(int) (currentTick & mask)].detach();
+            while (timeout != null){
+                Timeout next = timeout.next;
+                timeout.bucket = null;
+                timeout.prev = null;
+                timeout.next = null;
+                if (timeout.deadlineTick > currentTick){
+                    //超出范围被放到当前槽位的任务还没有到期，重新放入
+                    place(timeout, timeout.deadlineTick);
+                }else {
+                    --size;
+                    if (last == null){
+                        head = timeout;
+                    }else {
+                        last.next = timeout;
+                    }
+                    last = timeout;
+                }
+                timeout = next;
+            }
+            while (head != null){
+                Timeout next = head.next;
+                head.next = null;
+                //已经被取消的任务不再处理
+                if (head.expire()) expired.accept(head);
+                head = next;
+            }
+        }
+    }
+
+    /**
+     * 把高层槽位中的任务重新放入下面的层
+     */
+    private void cascade(Bucket bucket) {
+        Timeout timeout = bucket.detach();
+        while (timeout != null){
+            Timeout next = timeout.next;
+            place(timeout, Math.max(timeout.deadlineTick, currentTick));
+            timeout = next;
+        }
+    }
+
+    /**
+     * 取出时间轮中所有的任务（停止定时器时使用）
+     */
+    void drain(Consumer<Timeout> consumer) {
+        for (Bucket[] level : buckets) {
+            for (Bucket bucket : level) {
+                Timeout timeout = bucket.detach();
+                while (timeout != null){
+                    Timeout next = timeout.next;
+                    timeout.bucket = null;
+                    timeout.prev = null;
+                    timeout.next = null;
+                    consumer.accept(timeout);
+                    timeout = next;
+                }
+            }
+        }
+        size = 0;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 时间轮中的任务个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,231 @@
+package utils.collection.queue.timer;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 基于分层时间轮的定时器
+ * 适用于大量的超时任务（例如请求超时），其中大部分会在到期前被取消：
+ *   schedule/cancel 只是把任务放入无锁队列，O(1)，不会与工作线程竞争锁
+ *   工作线程每个刻度醒来一次，把新任务放入时间轮、移除已经取消的任务，然后推进时间轮
+ * 到期时间的精度为一个刻度（tickDuration），任务不会提前执行
+ * 到期的任务交给 executor 执行，默认在工作线程中直接执行（任务需要很快完成）；
+ * 耗时的任务可以传入线程池或者虚拟线程的 Executor，工作线程也可以通过 threadFactory 使用虚拟线程
+ */
+public class WheelTimer {
+
+    private static final int STATE_INIT = 0;
+    private static final int STATE_STARTED = 1;
+    private static final int STATE_SHUTDOWN = 2;
+
+    /**
+     * 每个刻度最多从 pending 中转移的任务个数，避免工作线程长时间无法推进时间轮
+     */
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final long tickNanos;
+
+    private final TimingWheel wheel;
+
+    private final Executor executor;
+
+    private final Thread worker;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    /**
+     * 新添加的任务与已经取消的任务，由工作线程处理
+     */
+    private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 还没有到期也没有取消的任务个数
+     */
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    /**
+     * 工作线程启动的时间（刻度 0）
+     */
+    private volatile long startTime;
+
+    /**
+     * 停止时没有执行的任务
+     */
+    private final ArrayList<Timeout> unprocessed = new ArrayList<>();
+
+    /**
+     * 默认每个刻度 10 毫秒，每层 64 个槽位，4 层（约 46 小时）
+     */
+    public WheelTimer() {
+        this(10, TimeUnit.MILLISECONDS);
+    }
+
+    public WheelTimer(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, 64, 4, null, null);
+    }
+
+    /**
+     * @param tickDuration  刻度的时长
+     * @param wheelSize     每一层的槽位数
+     * @param levels        层数
+     * @param threadFactory 创建工作线程，为null时创建名为 wheel-timer 的守护线程
+     * @param executor      执行到期的任务，为null时在工作线程中直接执行
+     */
+    public WheelTimer(long tickDuration, TimeUnit unit, int wheelSize, int levels, ThreadFactory threadFactory, Executor executor) {
+        this.tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) throw new IllegalArgumentException("Illegal tickDuration: " + tickDuration);
+        this.wheel = new TimingWheel(wheelSize, levels, 0);
+        this.executor = executor == null ? Runnable::run : executor;
+        Runnable loop = this::run;
+        if (threadFactory == null){
+            this.worker = new Thread(loop, "wheel-timer");
+            this.worker.setDaemon(true);
+        }else {
+            this.worker = threadFactory.newThread(loop);
+        }
+    }
+
+    /**
+     * 启动工作线程（第一次 schedule 时会自动启动）
+     */
+    public void start() {
+        if (state.get() == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)){
+            startTime = System.nanoTime();
+            if (startTime == 0) startTime = 1;
+            worker.start();
+        }
+        if (state.get() == STATE_SHUTDOWN) throw new IllegalStateException("timer has been stopped");
+        while (startTime == 0){
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * 在 delay 之后执行 task
+     * @return 返回任务的句柄，用于取消任务
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) throw new NullPointerException();
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime;
+        //向上取整，保证不会提前执行
+        long deadlineTick = (deadline + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(task, deadlineTick, this);
+        pendingCount.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Timeout.cancel 成功后调用
+     */
+    void cancelled(Timeout timeout) {
+        pendingCount.decrementAndGet();
+        cancelled.add(timeout);
+    }
+
+    private void run() {
+        while (state.get() == STATE_STARTED){
+            long tick = waitForNextTick();
+            if (tick < 0) break;
+            processCancelled();
+            transferPending();
+            wheel.advanceTo(tick, this::expire);
+        }
+        //停止后收集没有执行的任务
+        processCancelled();
+        wheel.drain(this::addUnprocessed);
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null){
+            addUnprocessed(timeout);
+        }
+    }
+
+    private void addUnprocessed(Timeout timeout) {
+        if (!timeout.isCancelled()) unprocessed.add(timeout);
+    }
+
+    /**
+     * 等待下一个刻度
+     * @return 返回应该推进到的刻度（工作线程落后时可能一次推进多个刻度），停止时返回 -1
+     */
+    private long waitForNextTick() {
+        long deadline = (wheel.currentTick() + 1) * tickNanos;
+        while (true){
+            long now = System.nanoTime() - startTime;
+            long sleepNanos = deadline - now;
+            if (sleepNanos <= 0) return now / tickNanos;
+            LockSupport.parkNanos(this, sleepNanos);
+            if (state.get() != STATE_STARTED) return -1;
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null){
+            wheel.remove(timeout);
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = pending.poll();
+            if (timeout == null) break;
+            //在 pending 中就已经被取消
+            if (timeout.isCancelled()) continue;
+            wheel.add(timeout);
+        }
+    }
+
+    private void expire(Timeout timeout) {
+        pendingCount.decrementAndGet();
+        try {
+            executor.execute(timeout.task());
+        } catch (RuntimeException e) {
+            //任务抛出的异常不能终止工作线程
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    /**
+     * 停止定时器
+     * @return 返回还没有执行也没有取消的任务
+     */
+    public List<Timeout> stop() {
+        if (Thread.currentThread() == worker) throw new IllegalStateException("stop() cannot be called from the timer worker thread");
+        int oldState = state.getAndSet(STATE_SHUTDOWN);
+        if (oldState != STATE_STARTED) return new ArrayList<>();
+        LockSupport.unpark(worker);
+        boolean interrupted = false;
+        while (worker.isAlive()){
+            try {
+                worker.join(100);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return unprocessed;
+    }
+
+    /**
+     * 还没有到期也没有取消的任务个数
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    public long tickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,192 @@
+package utils.collection.queue.topk;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.queue.child.IndexedPriorityQueue;
+import utils.objects.ObjectUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * 高频元素统计（Space-Saving 算法）
+ * 在固定的内存（capacity 个计数器）中统计数据流中出现次数最多的元素：
+ *   元素已经有计数器：计数加一
+ *   还有空闲的计数器：分配一个新的计数器
+ *   否则：替换计数最小的计数器，新元素的计数 = 最小计数 + 1，误差 = 最小计数
+ * 每个元素的真实次数在 [count - error, count] 之间，出现次数超过 n / capacity 的元素一定会被保留
+ * 计数器按照计数存放在 IndexedPriorityQueue（最小堆）中，每次更新为 O(log capacity)
+ * @param <E>
+ */
+public class HeavyHitters<E> {
+
+    /**
+     * 计数器
+     */
+    public static final class Counter<E>{
+        private final E item;
+        private long count;
+        private long error;
+
+        Counter(E item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public E getItem() {
+            return item;
+        }
+
+        /**
+         * 估计的次数（不小于真实次数）
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 最大误差，真实次数不小于 count - error
+         */
+        public long getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return item + "=" + count + (error == 0 ? "" : "(±" + error + ")");
+        }
+    }
+
+    private static final Comparator<Counter<?>> BY_COUNT = (c1, c2) -> Long.compare(c1.count, c2.count);
+
+    private final int capacity;
+
+    private final HashMap<E, Counter<E>> counters;
+
+    /**
+     * 计数最小的计数器位于堆顶
+     */
+    private final IndexedPriorityQueue<Counter<E>> heap;
+
+    /**
+     * 添加的总次数
+     */
+    private long total;
+
+    /**
+     * @param capacity 计数器的个数，越大越准确
+     */
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Illegal Capacity: " + capacity);
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity);
+        this.heap = new IndexedPriorityQueue<>(BY_COUNT, capacity);
+    }
+
+    public void add(E item) {
+        add(item, 1);
+    }
+
+    /**
+     * 添加 weight 次
+     */
+    public void add(E item, long weight) {
+        add(item, weight, 0);
+    }
+
+    private void add(E item, long weight, long error) {
+        if (ObjectUtils.isEmpty(item)) return;
+        if (weight <= 0) throw new IllegalArgumentException("Illegal weight: " + weight);
+        total += weight;
+        Counter<E> counter = counters.get(item);
+        if (counter != null){
+            counter.count += weight;
+            counter.error += error;
+            heap.updatePriority(counter);
+        }else if (counters.size() < capacity){
+            counter = new Counter<>(item, weight, error);
+            counters.put(item, counter);
+            heap.add(counter);
+        }else {
+            //替换计数最小的计数器
+            Counter<E> min = heap.poll();
+            counters.remove(min.item);
+            counter = new Counter<>(item, min.count + weight, min.count + error);
+            counters.put(item, counter);
+            heap.add(counter);
+        }
+    }
+
+    /**
+     * 合并另一个统计结果（例如多个线程各自统计后汇总），合并后的误差为两者误差之和
+     */
+    public void merge(HeavyHitters<? extends E> other) {
+        if (other == null || other == this) return;
+        for (Counter<? extends E> counter : other.counters.values()) {
+            add(counter.item, counter.count, counter.error);
+        }
+    }
+
+    /**
+     * 估计的次数（没有计数器时返回0，真实次数不超过当前最小计数）
+     */
+    public long estimate(E item) {
+        Counter<E> counter = counters.get(item);
+        return counter == null ? 0 : counter.count;
+    }
+
+    /**
+     * 按照计数从大到小返回前 k 个计数器
+     */
+    public List<Counter<E>> topK(int k) {
+        //集合中只有 Counter<E>，转换是安全的
+        @SuppressWarnings("unchecked")
+        Counter<E>[] array = (Counter<E>[]) counters.values().toArray(new Counter<?>[0]);
+        Arrays.sort(array, BY_COUNT.reversed());
+        ArrayList<Counter<E>> result = new ArrayList<>(Math.max(1, Math.min(k, array.length)));
+        for (int i = 0; i < k && i < array.length; i++) {
+            result.add(array[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 返回所有确定出现次数超过 total * ratio 的元素（count - error > total * ratio），按照计数从大到小排序
+     */
+    public List<Counter<E>> guaranteed(double ratio) {
+        List<Counter<E>> all = topK(counters.size());
+        ArrayList<Counter<E>> result = new ArrayList<>();
+        Iterator<Counter<E>> iterator = all.iterator();
+        while (iterator.hasNext()){
+            Counter<E> counter = iterator.next();
+            if (counter.count - counter.error > total * ratio) result.add(counter);
+        }
+        return result;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        counters.clear();
+        heap.clear();
+        total = 0;
+    }
+
+    @Override
+    public String toString() {
+        return topK(counters.size()).toString();
+    }
+}
@@ -25,16 +25,15 @@ public class BinarySearchTreeSet<E> extends AbstractSet<E> {
         map = new BinarySearchTreeMap<>();
     }
 
+    /**
+     * 批量构建，内部直接构建平衡的二叉搜索树，避免有序数据逐个添加导致树退化成链表
+     */
     public BinarySearchTreeSet(E... elements){
-        this();
-        for (int i = 0; i < elements.length; i++) {
-            add(elements[i]);
-        }
+        map = new BinarySearchTreeMap<>(elements,PRESENT);
     }
 
     public BinarySearchTreeSet(Collection<E> collection){
-        this();
-        addAll(collection);
+        map = new BinarySearchTreeMap<>((E[]) collection.toArray(),PRESENT);
     }
 
     @Override
@@ -0,0 +1,398 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.tree.prefix.PrefixTree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 线程安全的前缀树
+ * 读操作（contains、getPrefix、getPrefixSize）不加锁，添加/删除只使用 CAS：
+ *   每个节点的孩子保存在不可变的 Children 中（按照字符排序的 char[]/Node[]），添加/删除孩子时复制后 CAS 替换
+ *   pass/end 通过 VarHandle 原子更新，总个数使用 LongAdder 统计，避免所有线程竞争根节点
+ * 节点的删除分两步：先把 pass 从 0 CAS 为 DEAD（-1），再从父节点中摘除
+ *   添加时先增加节点的 pass 再进入下一层，遇到 DEAD 节点说明它正在被删除，帮助摘除后重新创建
+ *   removePrefix 把整棵子树标记为 DEAD（孩子替换为 DEAD_CHILDREN），统计实际删除的单词个数
+ * 与 RadixTree 一样支持任意字符，区分大小写
+ * getPrefix、prefixIterator 与 size 是弱一致的：遍历期间的并发修改可能看到，也可能看不到
+ */
+public class ConcurrentPrefixTree implements PrefixTree {
+
+    private static final int DEAD = -1;
+
+    private static final VarHandle PASS;
+
+    private static final VarHandle END;
+
+    private static final VarHandle CHILDREN;
+
+    private static final VarHandle ROOT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            PASS = lookup.findVarHandle(Node.class, "pass", int.class);
+            END = lookup.findVarHandle(Node.class, "end", int.class);
+            CHILDREN = lookup.findVarHandle(Node.class, "children", Children.class);
+            ROOT = lookup.findVarHandle(ConcurrentPrefixTree.class, "root", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 不可变的孩子集合，修改时复制
+     */
+    final static class Children{
+        final char[] keys;
+        final Node[] nodes;
+
+        Children(char[] keys, Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+
+        int indexOf(char c){
+            return Arrays.binarySearch(keys, c);
+        }
+
+        Node get(char c){
+            int index = indexOf(c);
+            return index < 0 ? null : nodes[index];
+        }
+
+        Children insert(int position, char c, Node node){
+            int length = keys.length;
+            char[] newKeys = new char[length + 1];
+            Node[] newNodes = new Node[length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(nodes, 0, newNodes, 0, position);
+            newKeys[position] = c;
+            newNodes[position] = node;
+            System.arraycopy(keys, position, newKeys, position + 1, length - position);
+            System.arraycopy(nodes, position, newNodes, position + 1, length - position);
+            return new Children(newKeys, newNodes);
+        }
+
+        Children remove(int index){
+            int length = keys.length - 1;
+            if (length == 0) return EMPTY_CHILDREN;
+            char[] newKeys = new char[length];
+            Node[] newNodes = new Node[length];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(nodes, 0, newNodes, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, length - index);
+            System.arraycopy(nodes, index + 1, newNodes, index, length - index);
+            return new Children(newKeys, newNodes);
+        }
+    }
+
+    private static final Children EMPTY_CHILDREN = new Children(new char[0], new Node[0]);
+
+    /**
+     * 已删除节点的孩子，添加孩子时 CAS 一定失败
+     */
+    private static final Children DEAD_CHILDREN = new Children(new char[0], new Node[0]);
+
+    final static class Node{
+        //经过当前节点的单词个数（包括正在添加的），DEAD 表示节点已经删除（根节点不统计）
+        volatile int pass;
+        //以当前节点结尾的单词个数，DEAD 表示节点已经被 removePrefix 删除
+        volatile int end;
+        volatile Children children = EMPTY_CHILDREN;
+    }
+
+    private volatile Node root;
+
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentPrefixTree() {
+        root = new Node();
+    }
+
+    public ConcurrentPrefixTree(String... values) {
+        this();
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    @Override
+    public void add(String value) {
+        char[] chars = toCharArray(value);
+        retry:
+        for (;;){
+            Node[] path = new Node[chars.length + 1];
+            Node node = path[0] = root;
+            for (int i = 0; i < chars.length; i++) {
+                node = acquireChild(node, chars[i]);
+                if (node == null){
+                    //父节点已经被删除（removePrefix 或 clear），撤销后重新添加
+                    release(path, chars, i);
+                    continue retry;
+                }
+                path[i + 1] = node;
+            }
+            for (;;){
+                int end = node.end;
+                if (end == DEAD){
+                    release(path, chars, chars.length);
+                    continue retry;
+                }
+                if (END.compareAndSet(node, end, end + 1)) break;
+            }
+            size.increment();
+            return;
+        }
+    }
+
+    /**
+     * 获取 parent 经过字符 c 的孩子（不存在时创建），并把孩子的 pass 加1
+     * @return parent 已经被删除时返回null
+     */
+    private Node acquireChild(Node parent, char c) {
+        for (;;){
+            Children children = parent.children;
+            if (children == DEAD_CHILDREN) return null;
+            int index = children.indexOf(c);
+            if (index < 0){
+                Node node = new Node();
+                node.pass = 1;
+                if (CHILDREN.compareAndSet(parent, children, children.insert(-(index + 1), c, node))) return node;
+                continue;
+            }
+            Node node = children.nodes[index];
+            for (;;){
+                int pass = node.pass;
+                if (pass == DEAD) break;
+                if (PASS.compareAndSet(node, pass, pass + 1)) return node;
+            }
+            //孩子正在被删除，帮助从父节点中摘除后重试
+            CHILDREN.compareAndSet(parent, children, children.remove(index));
+        }
+    }
+
+    /**
+     * 从下往上把 path[1, depth] 的 pass 减1，减为0的节点从父节点中删除
+     */
+    private void release(Node[] path, char[] chars, int depth) {
+        for (int d = depth; d > 0; d--) {
+            if (decrement(path[d], 1) == 0) prune(path[d - 1], chars[d - 1], path[d]);
+        }
+    }
+
+    /**
+     * pass 减去 count，节点已经删除时不修改
+     * @return 返回修改后的 pass，节点已经删除时返回 DEAD
+     */
+    private static int decrement(Node node, int count) {
+        for (;;){
+            int pass = node.pass;
+            if (pass == DEAD) return DEAD;
+            if (PASS.compareAndSet(node, pass, pass - count)) return pass - count;
+        }
+    }
+
+    /**
+     * 删除 pass 为 0 的节点：先标记为 DEAD（此后不会再有线程进入该节点），再从父节点中摘除
+     */
+    private static void prune(Node parent, char c, Node node) {
+        if (!PASS.compareAndSet(node, 0, DEAD)) return;
+        unlink(parent, c, node);
+    }
+
+    private static void unlink(Node parent, char c, Node node) {
+        for (;;){
+            Children children = parent.children;
+            int index = children.indexOf(c);
+            if (index < 0 || children.nodes[index] != node) return;
+            if (CHILDREN.compareAndSet(parent, children, children.remove(index))) return;
+        }
+    }
+
+    @Override
+    public boolean remove(String value) {
+        char[] chars = toCharArray(value);
+        Node[] path = path(chars);
+        if (path == null) return false;
+        Node node = path[chars.length];
+        for (;;){
+            int end = node.end;
+            if (end <= 0) return false;
+            if (END.compareAndSet(node, end, end - 1)) break;
+        }
+        size.decrement();
+        release(path, chars, chars.length);
+        return true;
+    }
+
+    @Override
+    public int removePrefix(String prefix) {
+        char[] chars = toCharArray(prefix);
+        if (chars.length == 0){
+            //原子地替换根节点后删除原先的整棵树，正在原先的树中添加的线程会重新添加到新的根节点
+            //并发的 clear 各自拿到不同的旧根节点，每棵树只会被删除一次
+            Node oldRoot = (Node) ROOT.getAndSet(this, new Node());
+            int count = kill(oldRoot);
+            size.add(-count);
+            return count;
+        }
+        Node[] path = path(chars);
+        if (path == null) return 0;
+        Node node = path[chars.length];
+        int count = kill(node);
+        unlink(path[chars.length - 1], chars[chars.length - 1], node);
+        if (count == 0) return 0;
+        size.add(-count);
+        //被删除的单词在上层节点的 pass 由当前线程扣除
+        for (int d = chars.length - 1; d > 0; d--) {
+            if (decrement(path[d], count) == 0) prune(path[d - 1], chars[d - 1], path[d]);
+        }
+        return count;
+    }
+
+    /**
+     * 把 node 及其子树标记为 DEAD
+     * @return 返回由当前线程删除的单词个数（每个 end 只会被一个线程取走）
+     */
+    private static int kill(Node node) {
+        int count = 0;
+        Node[] stack = new Node[16];
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0){
+            Node current = stack[--top];
+            PASS.setVolatile(current, DEAD);
+            int end = (int) END.getAndSet(current, DEAD);
+            if (end > 0) count += end;
+            Children children = (Children) CHILDREN.getAndSet(current, DEAD_CHILDREN);
+            for (Node child : children.nodes) {
+                if (top == stack.length) stack = Arrays.copyOf(stack, top << 1);
+                stack[top++] = child;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 获取从根节点到 chars 对应节点的路径，节点不存在时返回null
+     */
+    private Node[] path(char[] chars) {
+        Node[] path = new Node[chars.length + 1];
+        Node node = path[0] = root;
+        for (int i = 0; i < chars.length; i++) {
+            node = node.children.get(chars[i]);
+            if (node == null) return null;
+            path[i + 1] = node;
+        }
+        return path;
+    }
+
+    private Node find(char[] chars) {
+        Node node = root;
+        for (int i = 0; i < chars.length && node != null; i++) {
+            node = node.children.get(chars[i]);
+        }
+        return node;
+    }
+
+    @Override
+    public boolean contains(String value) {
+        Node node = find(toCharArray(value));
+        return node != null && node.end > 0;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 按照字典序返回以 prefix 为前缀的字符串
+     */
+    @Override
+    public List<String> getPrefix(String prefix) {
+        List<String> list = new ArrayList<>();
+        Iterator<String> iterator = prefixIterator(prefix);
+        while (iterator.hasNext()){
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+    /**
+     * 按照字典序逐个返回以 prefix 为前缀的字符串（弱一致）
+     */
+    public Iterator<String> prefixIterator(String prefix) {
+        return prefixIterator(prefix, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 分页获取以 prefix 为前缀的字符串
+     * @param startAfter 只返回字典序大于 startAfter 的字符串，为null时从第一个开始
+     * @param limit 最多返回的个数
+     */
+    public Iterator<String> prefixIterator(String prefix, String startAfter, int limit) {
+        return newPrefixIterator(prefix, startAfter, limit);
+    }
+
+    public Stream<String> prefixStream(String prefix) {
+        return newPrefixIterator(prefix, null, Integer.MAX_VALUE).stream();
+    }
+
+    private PrefixIterator<Node> newPrefixIterator(String prefix, String startAfter, int limit) {
+        PrefixIterator<Node> iterator = new PrefixIterator<Node>(limit) {
+            @Override
+            Node child(Node node, char c) {
+                return node.children.get(c);
+            }
+
+            @Override
+            void pushChildren(Node node, int from) {
+                //读取一次快照，之后的修改不影响本次遍历
+                Children children = node.children;
+                for (int i = children.keys.length - 1; i >= 0 && children.keys[i] >= from; i--) {
+                    push(children.nodes[i], children.keys[i]);
+                }
+            }
+
+            @Override
+            boolean isEnd(Node node) {
+                return node.end > 0;
+            }
+        };
+        return iterator.start(root, toCharArray(prefix), startAfter == null ? null : toCharArray(startAfter));
+    }
+
+    @Override
+    public int getPrefixSize(String prefix) {
+        char[] chars = toCharArray(prefix);
+        if (chars.length == 0) return size();
+        Node node = find(chars);
+        if (node == null) return 0;
+        return Math.max(0, node.pass);
+    }
+
+    /**
+     * 清空（与并发的添加同时进行时，这些添加可能被清除，也可能保留）
+     */
+    @Override
+    public void clear() {
+        removePrefix("");
+    }
+
+    private char[] toCharArray(String value) {
+        return value == null ? new char[0] : value.toCharArray();
+    }
+}
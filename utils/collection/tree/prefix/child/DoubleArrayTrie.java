@@ -0,0 +1,408 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.Collection;
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.tree.prefix.PrefixTree;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * 双数组前缀树（只读）
+ * 适用于构建一次、查询很多次的静态词典（停用词、商品目录、路由表等）
+ * 所有状态保存在几个 int[] 中，没有节点对象：
+ *   状态 s 经过字符编码 c 转移到 t = base[s] + c，并且要求 check[t] == s
+ *   编码 0 表示单词结束（s 是某个单词的结尾时，check[base[s]] == s）
+ * 单词按照字典序排序后连续存储，每个状态记录子树中第一个单词的序号 first 与单词个数 pass，
+ * 所以 getPrefixSize 为 O(前缀长度)，getPrefix 只需要截取有序单词表中的一段
+ * 字符编码按照字符顺序从 1 开始分配，只为词典中出现过的字符分配编码，使数组更加紧凑
+ * 可以通过 writeTo/read 序列化，读取后不需要重新构建
+ */
+public class DoubleArrayTrie implements PrefixTree {
+
+    private static final int MAGIC = 0x44415431;
+
+    /**
+     * 词典中出现的字符（有序），字符的编码为下标 + 1
+     */
+    private final char[] alphabet;
+
+    /**
+     * 字符 -> 编码（0 表示词典中没有该字符）
+     */
+    private final int[] codes;
+
+    private int[] base;
+
+    private int[] check;
+
+    /**
+     * 子树中第一个单词的序号
+     */
+    private int[] first;
+
+    /**
+     * 子树中的单词个数
+     */
+    private int[] pass;
+
+    /**
+     * 有序单词表：所有单词连续存储在 text 中，第 i 个单词为 text[offsets[i], offsets[i + 1])
+     */
+    private final char[] text;
+
+    private final int[] offsets;
+
+    /**
+     * 构建过程中下一次开始查找空闲位置的下标
+     */
+    private int nextCheckPos;
+
+    private int maxPosition;
+
+    public DoubleArrayTrie(String... words) {
+        this(prepare(words), true);
+    }
+
+    public DoubleArrayTrie(Collection<String> words) {
+        this(prepare(Arrays.copyOf(words.toArray(), words.size(), String[].class)), true);
+    }
+
+    /**
+     * @param words    已经排序并去重的单词
+     * @param prepared 只用于与 DoubleArrayTrie(String...) 区分
+     */
+    private DoubleArrayTrie(String[] words, boolean prepared) {
+        int length = 0;
+        for (String word : words) {
+            length += word.length();
+        }
+        this.text = new char[length];
+        this.offsets = new int[words.length + 1];
+        int offset = 0;
+        for (int i = 0; i < words.length; i++) {
+            words[i].getChars(0, words[i].length(), text, offset);
+            offset += words[i].length();
+            offsets[i + 1] = offset;
+        }
+        //只为出现过的字符分配编码
+        char[] chars = text.clone();
+        Arrays.sort(chars);
+        int count = 0;
+        for (int i = 0; i < chars.length; i++) {
+            if (i == 0 || chars[i] != chars[i - 1]) chars[count++] = chars[i];
+        }
+        this.alphabet = Arrays.copyOf(chars, count);
+        this.codes = buildCodes(alphabet);
+        build();
+    }
+
+    private DoubleArrayTrie(char[] alphabet, int[] base, int[] check, int[] first, int[] pass, char[] text, int[] offsets) {
+        this.alphabet = alphabet;
+        this.codes = buildCodes(alphabet);
+        this.base = base;
+        this.check = check;
+        this.first = first;
+        this.pass = pass;
+        this.text = text;
+        this.offsets = offsets;
+    }
+
+    /**
+     * 过滤 null，排序并去重
+     */
+    private static String[] prepare(String[] words) {
+        String[] array = new String[words.length];
+        int length = 0;
+        for (String word : words) {
+            if (word != null) array[length++] = word;
+        }
+        array = Arrays.copyOf(array, length);
+        boolean sorted = true;
+        for (int i = 1; i < length && sorted; i++) {
+            sorted = array[i - 1].compareTo(array[i]) < 0;
+        }
+        if (!sorted){
+            Arrays.sort(array);
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == 0 || !array[i].equals(array[count - 1])) array[count++] = array[i];
+            }
+            array = Arrays.copyOf(array, count);
+        }
+        return array;
+    }
+
+    private static int[] buildCodes(char[] alphabet) {
+        int[] codes = new int[alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1] + 1];
+        for (int i = 0; i < alphabet.length; i++) {
+            codes[alphabet[i]] = i + 1;
+        }
+        return codes;
+    }
+
+    private int code(char c) {
+        return c < codes.length ? codes[c] : 0;
+    }
+
+    /**
+     * 第 word 个单词第 depth 个字符的编码（单词已经结束时为 0）
+     */
+    private int code(int word, int depth) {
+        int index = offsets[word] + depth;
+        return index < offsets[word + 1] ? codes[text[index]] : 0;
+    }
+
+    private void build() {
+        int capacity = Math.max(64, text.length + offsets.length);
+        base = new int[capacity];
+        check = new int[capacity];
+        first = new int[capacity];
+        pass = new int[capacity];
+        Arrays.fill(check, -1);
+        nextCheckPos = 1;
+        maxPosition = 0;
+        int words = offsets.length - 1;
+        pass[0] = words;
+        if (words > 0) insert(0, 0, 0, words);
+        //去掉末尾没有使用的部分
+        int length = maxPosition + 1;
+        base = Arrays.copyOf(base, length);
+        check = Arrays.copyOf(check, length);
+        first = Arrays.copyOf(first, length);
+        pass = Arrays.copyOf(pass, length);
+    }
+
+    /**
+     * 为状态 s 分配 base，并放入单词 [left, right) 在 depth 处的所有转移
+     */
+    private void insert(int s, int depth, int left, int right) {
+        //按照编码分组（单词有序，相同编码的单词是连续的）
+        int siblingCount = 0;
+        int[] siblingCodes = new int[Math.min(right - left, alphabet.length + 1)];
+        int[] siblingLefts = new int[siblingCodes.length + 1];
+        for (int w = left; w < right; w++) {
+            int c = code(w, depth);
+            if (siblingCount == 0 || siblingCodes[siblingCount - 1] != c){
+                siblingCodes[siblingCount] = c;
+                siblingLefts[siblingCount++] = w;
+            }
+        }
+        siblingLefts[siblingCount] = right;
+        int begin = findBase(siblingCodes, siblingCount);
+        base[s] = begin;
+        //先占用所有位置，再递归处理子状态
+        for (int i = 0; i < siblingCount; i++) {
+            int t = begin + siblingCodes[i];
+            check[t] = s;
+            first[t] = siblingLefts[i];
+            pass[t] = siblingLefts[i + 1] - siblingLefts[i];
+            maxPosition = Math.max(maxPosition, t);
+        }
+        for (int i = 0; i < siblingCount; i++) {
+            if (siblingCodes[i] != 0){
+                insert(begin + siblingCodes[i], depth + 1, siblingLefts[i], siblingLefts[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * 查找使 begin + code 全部空闲的 begin
+     */
+    private int findBase(int[] siblingCodes, int siblingCount) {
+        int firstCode = siblingCodes[0];
+        int position = Math.max(nextCheckPos, firstCode + 1) - 1;
+        //只有从 nextCheckPos 开始查找时才能移动 nextCheckPos
+        boolean firstFree = nextCheckPos >= firstCode + 1;
+        while (true){
+            ++position;
+            ensureCapacity(position + 1);
+            if (check[position] >= 0) continue;
+            if (firstFree){
+                //之前的位置都已经被占用，下一次直接从这里开始查找
+                nextCheckPos = position;
+                firstFree = false;
+            }
+            int begin = position - firstCode;
+            ensureCapacity(begin + siblingCodes[siblingCount - 1] + 1);
+            boolean free = true;
+            for (int i = 1; i < siblingCount && free; i++) {
+                free = check[begin + siblingCodes[i]] < 0;
+            }
+            if (free) return begin;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= check.length) return;
+        int newCapacity = Math.max(capacity, check.length + (check.length >> 1));
+        int oldCapacity = check.length;
+        base = Arrays.copyOf(base, newCapacity);
+        check = Arrays.copyOf(check, newCapacity);
+        first = Arrays.copyOf(first, newCapacity);
+        pass = Arrays.copyOf(pass, newCapacity);
+        Arrays.fill(check, oldCapacity, newCapacity, -1);
+    }
+
+    /**
+     * 沿着 value 转移
+     * @return 返回到达的状态，不存在时返回 -1
+     */
+    private int walk(String value) {
+        int s = 0;
+        if (value == null) return s;
+        for (int i = 0; i < value.length(); i++) {
+            int c = code(value.charAt(i));
+            if (c == 0) return -1;
+            int t = base[s] + c;
+            if (t >= check.length || check[t] != s) return -1;
+            s = t;
+        }
+        return s;
+    }
+
+    @Override
+    public boolean contains(String value) {
+        int s = walk(value);
+        if (s < 0 || pass[s] == 0) return false;
+        int t = base[s];
+        return t < check.length && check[t] == s;
+    }
+
+    /**
+     * 返回单词在有序单词表中的序号，不存在时返回 -1
+     */
+    public int indexOf(String value) {
+        return contains(value) ? first[base[walk(value)]] : -1;
+    }
+
+    /**
+     * 有序单词表中的第 index 个单词
+     */
+    public String get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        return new String(text, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    @Override
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 按照字典序返回以 prefix 为前缀的单词
+     */
+    @Override
+    public List<String> getPrefix(String prefix) {
+        int s = walk(prefix);
+        if (s < 0 || pass[s] == 0) return new ArrayList<>();
+        List<String> list = new ArrayList<>(pass[s]);
+        for (int i = first[s], end = first[s] + pass[s]; i < end; i++) {
+            list.add(get(i));
+        }
+        return list;
+    }
+
+    @Override
+    public int getPrefixSize(String prefix) {
+        int s = walk(prefix);
+        return s < 0 ? 0 : pass[s];
+    }
+
+    @Override
+    public void add(String value) {
+        throw new UnsupportedOperationException("double array trie is read only");
+    }
+
+    @Override
+    public boolean remove(String value) {
+        throw new UnsupportedOperationException("double array trie is read only");
+    }
+
+    @Override
+    public int removePrefix(String prefix) {
+        throw new UnsupportedOperationException("double array trie is read only");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("double array trie is read only");
+    }
+
+    /**
+     * 状态数组的长度
+     */
+    public int capacity() {
+        return check.length;
+    }
+
+    /**
+     * 序列化
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(alphabet.length);
+        for (char c : alphabet) {
+            out.writeChar(c);
+        }
+        out.writeInt(check.length);
+        for (int i = 0; i < check.length; i++) {
+            out.writeInt(base[i]);
+            out.writeInt(check[i]);
+            out.writeInt(first[i]);
+            out.writeInt(pass[i]);
+        }
+        out.writeInt(offsets.length);
+        for (int offset : offsets) {
+            out.writeInt(offset);
+        }
+        out.writeInt(text.length);
+        for (char c : text) {
+            out.writeChar(c);
+        }
+        out.flush();
+    }
+
+    /**
+     * 反序列化（读取 writeTo 写入的内容）
+     */
+    public static DoubleArrayTrie read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) throw new IOException("not a double array trie");
+        char[] alphabet = new char[in.readInt()];
+        for (int i = 0; i < alphabet.length; i++) {
+            alphabet[i] = in.readChar();
+        }
+        int length = in.readInt();
+        int[] base = new int[length],
+              check = new int[length],
+              first = new int[length],
+              pass = new int[length];
+        for (int i = 0; i < length; i++) {
+            base[i] = in.readInt();
+            check[i] = in.readInt();
+            first[i] = in.readInt();
+            pass[i] = in.readInt();
+        }
+        int[] offsets = new int[in.readInt()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = in.readInt();
+        }
+        char[] text = new char[in.readInt()];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = in.readChar();
+        }
+        return new DoubleArrayTrie(alphabet, base, check, first, pass, text, offsets);
+    }
+}
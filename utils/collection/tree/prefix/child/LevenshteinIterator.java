@@ -0,0 +1,121 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.queue.child.ArrayDeque;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 模糊查找迭代器：按照深度优先的顺序遍历前缀树，返回与 query 的编辑距离（Levenshtein）不超过 maxDistance 的单词
+ * 每个节点保存一行动态规划数组 row，row[j] 表示从根到当前节点的字符串与 query[0, j) 的编辑距离
+ * 子节点的 row 由父节点的 row 在 O(query长度) 内计算得到，row 中的最小值大于 maxDistance 时剪掉整棵子树
+ * 使用显式栈代替递归，每次 next() 只遍历到下一个匹配的单词为止
+ * @param <N> 前缀树的节点类型，由子类提供遍历孩子与判断单词结尾的方法
+ */
+abstract class LevenshteinIterator<N> implements Iterator<String> {
+
+    final static class Frame<N>{
+        final N node;
+        //从父节点到当前节点的字符
+        final char c;
+        final int depth;
+        final int[] parentRow;
+
+        Frame(N node, char c, int depth, int[] parentRow) {
+            this.node = node;
+            this.c = c;
+            this.depth = depth;
+            this.parentRow = parentRow;
+        }
+    }
+
+    private final char[] query;
+
+    private final int maxDistance;
+
+    private final ArrayDeque<Frame<N>> stack = new ArrayDeque<>();
+
+    //当前路径上的字符，path[d] 为第 d + 1 层节点的字符
+    private char[] path = new char[16];
+
+    private int[] row;
+
+    private int depth;
+
+    private String next;
+
+    LevenshteinIterator(N root, char[] query, int maxDistance) {
+        if (maxDistance < 0) throw new IllegalArgumentException("maxDistance < 0: " + maxDistance);
+        this.query = query;
+        this.maxDistance = maxDistance;
+        if (root != null){
+            int[] first = new int[query.length + 1];
+            for (int j = 0; j < first.length; j++) {
+                first[j] = j;
+            }
+            //根节点没有父节点，直接使用第一行
+            stack.push(new Frame<>(root, '\0', 0, first));
+        }
+    }
+
+    /**
+     * 依次调用 push(child, c) 压入 node 的所有孩子
+     * 按照字符从大到小压入时，单词按照字典序返回
+     */
+    abstract void pushChildren(N node);
+
+    abstract boolean isEnd(N node);
+
+    final void push(N child, char c) {
+        stack.push(new Frame<>(child, c, depth + 1, row));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) next = advance();
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        String result = next;
+        next = null;
+        return result;
+    }
+
+    private String advance() {
+        while (!stack.isEmpty()){
+            Frame<N> frame = stack.pollLast();
+            int[] current = frame.depth == 0 ? frame.parentRow : nextRow(frame.parentRow, frame.c);
+            if (current == null) continue;
+            if (frame.depth > 0){
+                if (frame.depth > path.length) path = Arrays.copyOf(path, path.length << 1);
+                path[frame.depth - 1] = frame.c;
+            }
+            row = current;
+            depth = frame.depth;
+            pushChildren(frame.node);
+            if (isEnd(frame.node) && current[query.length] <= maxDistance) return new String(path, 0, depth);
+        }
+        return null;
+    }
+
+    /**
+     * 由父节点的 row 计算经过字符 c 之后的 row
+     * @return 最小值超过 maxDistance 时返回null（剪枝）
+     */
+    private int[] nextRow(int[] previous, char c) {
+        int[] current = new int[previous.length];
+        current[0] = previous[0] + 1;
+        int min = current[0];
+        for (int j = 1; j < current.length; j++) {
+            int replace = previous[j - 1] + (query[j - 1] == c ? 0 : 1);
+            int value = Math.min(Math.min(current[j - 1], previous[j]) + 1, replace);
+            current[j] = value;
+            if (value < min) min = value;
+        }
+        return min > maxDistance ? null : current;
+    }
+}
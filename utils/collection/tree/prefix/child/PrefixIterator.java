@@ -0,0 +1,153 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.queue.child.ArrayDeque;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 前缀枚举迭代器：使用显式栈按照字典序深度优先遍历前缀节点下的单词
+ * 与 getPrefix 不同，不会一次生成所有的单词，每次 next() 只遍历到下一个单词为止
+ * 支持分页：
+ *   startAfter：只返回字典序大于 startAfter 的单词，沿 startAfter 的路径下降，只压入右侧的分支，不会遍历之前的单词
+ *   limit：最多返回的单词个数
+ * @param <N> 前缀树的节点类型，由子类提供查找与遍历孩子的方法
+ */
+abstract class PrefixIterator<N> implements Iterator<String> {
+
+    final static class Frame<N>{
+        final N node;
+        //从父节点到当前节点的字符，为 -1 时表示前缀节点（字符已经在 path 中）
+        final int c;
+        final int depth;
+
+        Frame(N node, int c, int depth) {
+            this.node = node;
+            this.c = c;
+            this.depth = depth;
+        }
+    }
+
+    private final ArrayDeque<Frame<N>> stack = new ArrayDeque<>();
+
+    //当前路径上的字符，path[d - 1] 为第 d 层节点的字符
+    private char[] path;
+
+    private int depth;
+
+    private int remaining;
+
+    private String next;
+
+    /**
+     * @param limit 最多返回的单词个数
+     */
+    PrefixIterator(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("limit < 0: " + limit);
+        this.remaining = limit;
+    }
+
+    /**
+     * 定位前缀节点并初始化栈（子类构造完成后调用）
+     * 调用前需要保证 prefix 与 startAfter 已经按照前缀树的规则处理（例如转换为小写）
+     * @param startAfter 为null时从第一个单词开始
+     */
+    final PrefixIterator<N> start(N root, char[] prefix, char[] startAfter) {
+        path = Arrays.copyOf(prefix, prefix.length + 16);
+        N node = root;
+        for (int i = 0; i < prefix.length && node != null; i++) {
+            node = child(node, prefix[i]);
+        }
+        if (node == null) return this;
+        if (startAfter == null){
+            stack.push(new Frame<>(node, -1, prefix.length));
+            return this;
+        }
+        int common = 0;
+        while (common < prefix.length && common < startAfter.length && prefix[common] == startAfter[common]){
+            ++common;
+        }
+        if (common < prefix.length){
+            //startAfter 不以 prefix 开头：小于 prefix 时不影响结果，否则所有单词都不大于 startAfter
+            if (common == startAfter.length || startAfter[common] < prefix[common]){
+                stack.push(new Frame<>(node, -1, prefix.length));
+            }
+            return this;
+        }
+        //沿 startAfter 的路径下降，每层压入字符大于 startAfter[i] 的孩子
+        int d = prefix.length;
+        while (d < startAfter.length){
+            char c = startAfter[d];
+            depth = d;
+            pushChildren(node, c + 1);
+            N child = child(node, c);
+            if (child == null) return this;
+            if (d >= path.length) path = Arrays.copyOf(path, path.length << 1);
+            path[d] = c;
+            node = child;
+            ++d;
+        }
+        //startAfter 本身不返回，它的所有后代都大于它
+        depth = d;
+        pushChildren(node, 0);
+        return this;
+    }
+
+    /**
+     * 查找 node 经过字符 c 的孩子，不存在时返回null
+     */
+    abstract N child(N node, char c);
+
+    /**
+     * 按照字符从大到小，依次调用 push(child, c) 压入字符不小于 from 的孩子
+     */
+    abstract void pushChildren(N node, int from);
+
+    abstract boolean isEnd(N node);
+
+    final void push(N child, char c) {
+        stack.push(new Frame<>(child, c, depth + 1));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && remaining > 0) next = advance();
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        String result = next;
+        next = null;
+        --remaining;
+        return result;
+    }
+
+    private String advance() {
+        while (!stack.isEmpty()){
+            Frame<N> frame = stack.pollLast();
+            depth = frame.depth;
+            if (frame.c >= 0){
+                if (depth > path.length) path = Arrays.copyOf(path, path.length << 1);
+                path[depth - 1] = (char) frame.c;
+            }
+            pushChildren(frame.node, 0);
+            if (isEnd(frame.node)) return new String(path, 0, depth);
+        }
+        return null;
+    }
+
+    /**
+     * 转换为顺序流（按照字典序，元素不重复）
+     */
+    Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+}
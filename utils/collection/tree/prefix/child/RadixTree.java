@@ -0,0 +1,344 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.tree.prefix.PrefixTree;
+
+import java.util.Arrays;
+
+/**
+ * 基数树（Patricia 树，路径压缩的前缀树）
+ * 与 Trie、StringPrefixSearchTree 每个字符一个节点不同，RadixTree 的每条边保存一段字符串：
+ *   只有一个孩子并且不是单词结尾的节点会与孩子合并，节点个数不超过 2 * 单词个数
+ *   孩子按照边的第一个字符排序存放在数组中（数组长度等于孩子个数），查找时二分
+ * 添加时如果与已有的边只有部分相同则拆分该边，删除后重新合并只剩一个孩子的节点
+ * 与 StringPrefixSearchTree 一样支持任意字符，区分大小写
+ */
+public class RadixTree implements PrefixTree {
+
+    private static final char[] EMPTY_LABEL = new char[0];
+
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    final static class Node{
+        //从父节点到当前节点的边上的字符串
+        char[] label;
+        //经过当前节点的单词个数
+        int pass;
+        //以当前节点结尾的单词个数
+        int end;
+        //按照 label[0] 排序
+        Node[] children;
+
+        Node(char[] label) {
+            this.label = label;
+            this.children = EMPTY_CHILDREN;
+        }
+    }
+
+    private Node root;
+
+    private int size;
+
+    public RadixTree() {
+        root = new Node(EMPTY_LABEL);
+    }
+
+    public RadixTree(String... values) {
+        this();
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    @Override
+    public void add(String value) {
+        char[] chars = toCharArray(value);
+        Node node = root;
+        node.pass++;
+        int i = 0;
+        while (i < chars.length){
+            int index = indexOf(node, chars[i]);
+            if (index < 0){
+                //没有以 chars[i] 开头的边，剩余的字符作为新的叶子节点
+                Node leaf = new Node(Arrays.copyOfRange(chars, i, chars.length));
+                leaf.pass = 1;
+                leaf.end = 1;
+                insertChild(node, -(index + 1), leaf);
+                ++size;
+                return;
+            }
+            Node child = node.children[index];
+            int common = commonLength(child.label, chars, i);
+            if (common < child.label.length){
+                //只有部分相同，拆分边
+                child = split(node, index, common);
+            }
+            child.pass++;
+            node = child;
+            i += common;
+        }
+        node.end++;
+        ++size;
+    }
+
+    /**
+     * 将 parent.children[index] 的边在 length 处拆分为两段
+     * @return 返回新的中间节点
+     */
+    private Node split(Node parent, int index, int length) {
+        Node child = parent.children[index];
+        Node middle = new Node(Arrays.copyOfRange(child.label, 0, length));
+        middle.pass = child.pass;
+        middle.children = new Node[]{child};
+        child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+        parent.children[index] = middle;
+        return middle;
+    }
+
+    @Override
+    public boolean remove(String value) {
+        char[] chars = toCharArray(value);
+        //记录经过的节点，用于删除后合并
+        Node[] path = new Node[chars.length + 1];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        int i = 0;
+        while (i < chars.length){
+            int index = indexOf(node, chars[i]);
+            if (index < 0) return false;
+            node = node.children[index];
+            if (!startsWith(chars, i, node.label)) return false;
+            i += node.label.length;
+            path[depth++] = node;
+        }
+        if (node.end == 0) return false;
+        for (int d = 0; d < depth; d++) {
+            path[d].pass--;
+        }
+        node.end--;
+        --size;
+        //从下往上删除 pass 为 0 的节点
+        int d = depth - 1;
+        while (d > 0 && path[d].pass == 0){
+            removeChild(path[d - 1], path[d].label[0]);
+            --d;
+        }
+        if (d > 0) mergeWithChild(path[d]);
+        return true;
+    }
+
+    @Override
+    public int removePrefix(String prefix) {
+        char[] chars = toCharArray(prefix);
+        if (chars.length == 0){
+            int count = size;
+            clear();
+            return count;
+        }
+        Node[] path = new Node[chars.length + 1];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        int i = 0;
+        while (i < chars.length){
+            int index = indexOf(node, chars[i]);
+            if (index < 0) return 0;
+            node = node.children[index];
+            int common = commonLength(node.label, chars, i);
+            //前缀在边的中间结束时，整个节点都以该前缀开头
+            if (common < node.label.length && i + common < chars.length) return 0;
+            i += common;
+            path[depth++] = node;
+        }
+        int count = node.pass;
+        for (int d = 0; d < depth - 1; d++) {
+            path[d].pass -= count;
+        }
+        Node parent = path[depth - 2];
+        removeChild(parent, node.label[0]);
+        size -= count;
+        if (parent != root){
+            if (parent.pass == 0){
+                //父节点已经没有单词，继续向上删除
+                int d = depth - 2;
+                while (d > 0 && path[d].pass == 0){
+                    removeChild(path[d - 1], path[d].label[0]);
+                    --d;
+                }
+                if (d > 0) mergeWithChild(path[d]);
+            }else {
+                mergeWithChild(parent);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 不是单词结尾并且只有一个孩子的节点与孩子合并
+     */
+    private void mergeWithChild(Node node) {
+        if (node == root || node.end > 0 || node.children.length != 1) return;
+        Node child = node.children[0];
+        char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        node.label = label;
+        node.end = child.end;
+        node.children = child.children;
+    }
+
+    @Override
+    public boolean contains(String value) {
+        char[] chars = toCharArray(value);
+        Node node = root;
+        int i = 0;
+        while (i < chars.length){
+            int index = indexOf(node, chars[i]);
+            if (index < 0) return false;
+            node = node.children[index];
+            if (!startsWith(chars, i, node.label)) return false;
+            i += node.label.length;
+        }
+        return node.end > 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public List<String> getPrefix(String prefix) {
+        List<String> list = new ArrayList<>();
+        char[] chars = toCharArray(prefix);
+        StringBuilder sb = new StringBuilder(chars.length + 16);
+        Node node = locate(chars, sb);
+        if (node != null) collect(node, sb, list);
+        return list;
+    }
+
+    /**
+     * 按照字典序收集 node 下面的所有单词，sb 为到达 node 的字符串
+     */
+    private void collect(Node node, StringBuilder sb, List<String> list) {
+        if (node.end > 0) list.add(sb.toString());
+        int length = sb.length();
+        for (Node child : node.children) {
+            sb.append(child.label);
+            collect(child, sb, list);
+            sb.setLength(length);
+        }
+    }
+
+    @Override
+    public int getPrefixSize(String prefix) {
+        Node node = locate(toCharArray(prefix), null);
+        return node == null ? 0 : node.pass;
+    }
+
+    /**
+     * 查找以 chars 为前缀的最上层的节点（前缀可能在边的中间结束）
+     * @param sb 不为null时追加到达该节点的完整字符串
+     */
+    private Node locate(char[] chars, StringBuilder sb) {
+        Node node = root;
+        int i = 0,
+            common = 0;
+        while (i < chars.length){
+            int index = indexOf(node, chars[i]);
+            if (index < 0) return null;
+            node = node.children[index];
+            common = commonLength(node.label, chars, i);
+            if (common < node.label.length && i + common < chars.length) return null;
+            i += common;
+        }
+        if (sb != null){
+            sb.append(chars);
+            //前缀在边的中间结束时，补上边上剩余的字符
+            if (node != root) sb.append(node.label, common, node.label.length - common);
+        }
+        return node;
+    }
+
+    /**
+     * 二分查找以 c 开头的孩子
+     * @return 找到时返回下标，否则返回 -(插入位置 + 1)
+     */
+    private static int indexOf(Node node, char c) {
+        Node[] children = node.children;
+        int low = 0,
+            high = children.length - 1;
+        while (low <= high){
+            int mid = (low + high) >>> 1;
+            char midChar = children[mid].label[0];
+            if (midChar < c){
+                low = mid + 1;
+            }else if (midChar > c){
+                high = mid - 1;
+            }else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int position, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, position);
+        children[position] = child;
+        System.arraycopy(node.children, position, children, position + 1, node.children.length - position);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, char c) {
+        int index = indexOf(node, c);
+        if (index < 0) return;
+        if (node.children.length == 1){
+            node.children = EMPTY_CHILDREN;
+            return;
+        }
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children;
+    }
+
+    /**
+     * label 与 chars[offset, ...) 的公共前缀长度
+     */
+    private static int commonLength(char[] label, char[] chars, int offset) {
+        int length = Math.min(label.length, chars.length - offset);
+        int i = 0;
+        while (i < length && label[i] == chars[offset + i]){
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * chars[offset, ...) 是否以 label 开头
+     */
+    private static boolean startsWith(char[] chars, int offset, char[] label) {
+        if (chars.length - offset < label.length) return false;
+        for (int i = 0; i < label.length; i++) {
+            if (chars[offset + i] != label[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        root = new Node(EMPTY_LABEL);
+        size = 0;
+    }
+
+    private char[] toCharArray(String value) {
+        return value == null ? EMPTY_LABEL : value.toCharArray();
+    }
+}
@@ -2,28 +2,176 @@ package utils.collection.tree.prefix.child;
 
 import utils.collection.list.List;
 import utils.collection.list.child.ArrayList;
-import utils.collection.list.child.DoubleLinkedList;
 import utils.collection.tree.prefix.PrefixTree;
 import utils.objects.ObjectUtils;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 /**
  * 字符串查找树
  * 与 Trie 不同，StringPrefixSearchTree 支持任意 类型的字符串进行存储
  * 支持区分大小写，方便查找更多内容
+ * 孩子直接以 char 为键存放在节点中，不会装箱，并且根据孩子个数自动切换存储方式：
+ *   孩子较少时（不超过 SMALL_LIMIT 个）使用按照字符排序的 char[]/Node[]，二分查找
+ *   孩子较多时（例如根节点、中文等大字符集）转换为开放寻址的哈希表，查找为 O(1)
  */
 public class StringPrefixSearchTree implements PrefixTree {
 
+    private static final char[] EMPTY_KEYS = new char[0];
+
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    /**
+     * 孩子个数超过该值时转换为哈希表，删除到一半以下时转换回有序数组
+     */
+    private static final int SMALL_LIMIT = 8;
+
     final static class Node{
         int pass;
         int end;
-        Map<Character,Node> next;
+        //有序数组模式下前 count 个有效；哈希表模式下 children[i] 为null表示空位
+        char[] keys;
+        Node[] children;
+        //孩子个数
+        int count;
+        //keys/children 是否为开放寻址的哈希表
+        boolean hashed;
 
         public Node() {
-            pass = 0;
-            end = 0;
-            next = new HashMap<>();
+            keys = EMPTY_KEYS;
+            children = EMPTY_CHILDREN;
+        }
+
+        Node get(char c){
+            if (hashed){
+                int mask = keys.length - 1;
+                for (int i = hash(c) & mask; children[i] != null; i = (i + 1) & mask) {
+                    if (keys[i] == c) return children[i];
+                }
+                return null;
+            }
+            int index = Arrays.binarySearch(keys, 0, count, c);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * 添加孩子（调用前需要保证 c 不存在）
+         */
+        void put(char c, Node child){
+            if (hashed){
+                //负载因子不超过 0.5
+                if ((count + 1) << 1 > keys.length) rehash(keys.length << 1);
+                insertHashed(c, child);
+                ++count;
+                return;
+            }
+            if (count == SMALL_LIMIT){
+                rehash(SMALL_LIMIT << 2);
+                insertHashed(c, child);
+                ++count;
+                return;
+            }
+            int position = -(Arrays.binarySearch(keys, 0, count, c) + 1);
+            if (count == keys.length){
+                int capacity = Math.min(SMALL_LIMIT, Math.max(2, count << 1));
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, position, keys, position + 1, count - position);
+            System.arraycopy(children, position, children, position + 1, count - position);
+            keys[position] = c;
+            children[position] = child;
+            ++count;
+        }
+
+        void remove(char c){
+            if (!hashed){
+                int index = Arrays.binarySearch(keys, 0, count, c);
+                if (index < 0) return;
+                --count;
+                System.arraycopy(keys, index + 1, keys, index, count - index);
+                System.arraycopy(children, index + 1, children, index, count - index);
+                children[count] = null;
+                if (count == 0){
+                    keys = EMPTY_KEYS;
+                    children = EMPTY_CHILDREN;
+                }
+                return;
+            }
+            int mask = keys.length - 1;
+            int i = hash(c) & mask;
+            while (children[i] != null && keys[i] != c){
+                i = (i + 1) & mask;
+            }
+            if (children[i] == null) return;
+            children[i] = null;
+            --count;
+            //向前移动同一探测序列上的元素填补空位（不使用删除标记）
+            for (int j = (i + 1) & mask; children[j] != null; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                //home 不在 (i, j] 之间时，j 处的元素可以移动到 i
+                if (i <= j ? (home <= i || home > j) : (home <= i && home > j)){
+                    keys[i] = keys[j];
+                    children[i] = children[j];
+                    children[j] = null;
+                    i = j;
+                }
+            }
+            if (count <= SMALL_LIMIT >> 1) toSorted();
+        }
+
+        /**
+         * 按照字符排序的孩子字符，有序数组模式下直接返回内部数组（只有前 count 个有效，不能修改）
+         */
+        char[] sortedKeys(){
+            if (!hashed) return keys;
+            char[] sorted = new char[count];
+            int length = 0;
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != null) sorted[length++] = keys[i];
+            }
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        private void rehash(int capacity){
+            char[] oldKeys = keys;
+            Node[] oldChildren = children;
+            int length = hashed ? oldChildren.length : count;
+            keys = new char[capacity];
+            children = new Node[capacity];
+            hashed = true;
+            for (int i = 0; i < length; i++) {
+                if (oldChildren[i] != null) insertHashed(oldKeys[i], oldChildren[i]);
+            }
+        }
+
+        private void insertHashed(char c, Node child){
+            int mask = keys.length - 1;
+            int i = hash(c) & mask;
+            while (children[i] != null){
+                i = (i + 1) & mask;
+            }
+            keys[i] = c;
+            children[i] = child;
+        }
+
+        private void toSorted(){
+            char[] sorted = sortedKeys();
+            Node[] nodes = new Node[SMALL_LIMIT];
+            for (int i = 0; i < count; i++) {
+                nodes[i] = get(sorted[i]);
+            }
+            keys = Arrays.copyOf(sorted, SMALL_LIMIT);
+            children = nodes;
+            hashed = false;
+        }
+
+        private static int hash(char c){
+            int h = c * 0x9E3779B9;
+            return h ^ (h >>> 16);
         }
     }
 
@@ -47,19 +195,17 @@ public class StringPrefixSearchTree implements PrefixTree {
 
     @Override
     public void add(String value) {
-        Character[] chars = toCharArray(value);
+        char[] chars = toCharArray(value);
         Node node = root;
         node.pass++;
         for (int i = 0; i < chars.length; ++i){
-            Character character = chars[i];
-            if (!node.next.containsKey(character)){
-                Node newNode = new Node();
-                node.next.put(character,newNode);
-                node = newNode;
-                node.pass++;
-                continue;
+            char c = chars[i];
+            Node nextNode = node.get(c);
+            if (ObjectUtils.isEmpty(nextNode)){
+                nextNode = new Node();
+                node.put(c,nextNode);
             }
-            node = node.next.get(character);
+            node = nextNode;
             node.pass++;
         }
         node.end++;
@@ -68,26 +214,14 @@ public class StringPrefixSearchTree implements PrefixTree {
 
     @Override
     public boolean remove(String value) {
-        if (isEmpty() && !contains(value)) return false;
-        Character[] characters = toCharArray(value);
-        Node node = root,
-             pre = null;
-        for (int i = 0; i < characters.length; i++) {
-            Character character = characters[i];
+        char[] chars = toCharArray(value);
+        Node[] path = path(chars);
+        if (path == null || path[chars.length].end == 0) return false;
+        path[chars.length].end--;
+        for (Node node : path) {
             node.pass--;
-            if (node.pass == 0){
-                if (pre == null){
-                    root = null;
-                }else {
-                    node.next.remove(character);
-                }
-                --size;
-                return true;
-            }
-            pre = node;
-            node = node.next.get(character);
         }
-        node.end--;
+        prune(path,chars);
         --size;
         return true;
     }
@@ -95,103 +229,64 @@ public class StringPrefixSearchTree implements PrefixTree {
     @Override
     public int removePrefix(String prefix) {
         if (isEmpty()) return 0;
-
-        Character[] characters = toCharArray(prefix);
-
-
-        //被删除的节点
-        Node removeNode = root;
-
-        /**
-         * 记录查找过程中所经过的节点以及每个节点的下标
-         * 不包含根节点
-         */
-        Queue<Entry> queue = new LinkedList<>();
-
-        /**
-         * 遍历查找要删除的节点
-         */
-        for (int i = 0; i < characters.length; ++i){
-            Character character = characters[i];
-            Node nextNode = removeNode.next.get(character);
-            if (ObjectUtils.isEmpty(nextNode)) return 0;
-            removeNode = nextNode;
-            queue.add(new Entry(removeNode,character));
+        char[] chars = toCharArray(prefix);
+        if (chars.length == 0){
+            int count = size;
+            clear();
+            return count;
         }
-
+        Node[] path = path(chars);
+        if (path == null) return 0;
         //删除的单词个数
-        int removePass = removeNode.pass;
-
-        /**
-         * 记录每个节点的父节点
-         */
-        Node parent = null;
-
-        /**
-         * 比较顶部节点的 pass=0，如果等于直接删除，不需要再向下查找
-         */
-        if (!queue.isEmpty()){
-            Entry entry = queue.poll();
-            parent = entry.key;
-            parent.pass = parent.pass - removePass;
-            root.pass = root.pass - removePass;
-            if (parent.pass == 0){
-                //如果pass为0，则表示删除当前前缀的所有节点
-                root.next.remove(entry.value);
-                size = size - removePass;
-                return removeNode.pass;
-            }
-        }
-
-        while (!queue.isEmpty()){
-            Entry entry = queue.poll();
-            Node node = entry.key;
-            node.pass = node.pass - removePass;
-            if (node.pass == 0){
-                parent.next.remove(entry.value);
-                size = size - removePass;
-                return removeNode.pass;
-            }
-            parent = node;
+        int removePass = path[chars.length].pass;
+        for (Node node : path) {
+            node.pass -= removePass;
         }
-
-        return 0;
+        prune(path,chars);
+        size -= removePass;
+        return removePass;
     }
 
-    final static class Entry implements utils.collection.map.Map.Entry<Node,Character>{
-
-        Node key;
-
-        Character value;
-
-        public Entry(Node key, Character value) {
-            this.key = key;
-            this.value = value;
+    /**
+     * 获取从根节点到 chars 对应节点的路径，节点不存在时返回null
+     */
+    private Node[] path(char[] chars){
+        Node[] path = new Node[chars.length + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < chars.length; i++) {
+            node = node.get(chars[i]);
+            if (ObjectUtils.isEmpty(node)) return null;
+            path[i + 1] = node;
         }
+        return path;
+    }
 
-        @Override
-        public Node getKey() {
-            return key;
+    /**
+     * 删除路径上第一个 pass 为 0 的节点（它以下的节点也不再有单词）
+     */
+    private void prune(Node[] path,char[] chars){
+        for (int i = 1; i < path.length; i++) {
+            if (path[i].pass == 0){
+                path[i - 1].remove(chars[i - 1]);
+                return;
+            }
         }
+    }
 
-        @Override
-        public Character getValue() {
-            return value;
+    private Node find(char[] chars){
+        Node node = root;
+        for (int i = 0; i < chars.length && node != null; i++) {
+            node = node.get(chars[i]);
         }
+        return node;
     }
 
     @Override
     public boolean contains(String value) {
         if (isEmpty()) return false;
-        Node node = root;
-        Character[] characters = toCharArray(value);
-        for (int i = 0; i < characters.length; i++) {
-            Character character = characters[i];
-            Node nextNode = node.next.get(character);
-            if (ObjectUtils.isEmpty(nextNode)) return false;
-            node = nextNode;
-        }
-        return node.end > 0;
+        Node node = find(toCharArray(value));
+        return !ObjectUtils.isEmpty(node) && node.end > 0;
     }
 
     @Override
@@ -204,86 +299,108 @@ public class StringPrefixSearchTree implements PrefixTree {
         return size == 0;
     }
 
+    /**
+     * 获取以 prefix 为前缀的字符串（按照字典序）
+     * @return 没有时返回null
+     */
     @Override
     public List<String> getPrefix(String prefix) {
-        if (isEmpty()) return null;
-        Node node = root;
-        Character[] characters = toCharArray(prefix);
-        for (int i = 0; i < characters.length; i++) {
-            Character character = characters[i];
-            if (ObjectUtils.isEmpty(node)) return null;
-            node = node.next.get(character);
-        }
-        return getCharacterList(node,prefix,node.end > 0);
-    }
-    
-    private List<String> getCharacterList(Node node,String prefix,boolean flag){
-        if (node == null) return null;
+        if (getPrefixSize(prefix) == 0) return null;
         List<String> list = new ArrayList<>();
-        if (flag) list.add(prefix);
-        List<String> tempList = new DoubleLinkedList<>();
-        StringBuilder sb = new StringBuilder();
-        Iterator<Map.Entry<Character, Node>> iterator = node.next.entrySet().iterator();
+        Iterator<String> iterator = prefixIterator(prefix);
         while (iterator.hasNext()){
-            Map.Entry<Character, Node> entry = iterator.next();
-            Node nextNode = entry.getValue();
-            tempList.clear();
-            sb.setLength(0);
-            List<String> characterList = getCharacterList(nextNode,entry.getKey(),tempList,sb);
-            Iterator<String> characterIterator = characterList.iterator();
-            while (characterIterator.hasNext()){
-                list.add(prefix + characterIterator.next());
-            }
+            list.add(iterator.next());
         }
         return list;
     }
 
-    private List<String> getCharacterList(Node node,Character key,List<String> list, StringBuilder sb){
-        if (node == null) return list; //如果节点为空，则返回
-        sb.append(key);
-        if (node.end > 0) list.add(sb.toString());
-        Iterator<Map.Entry<Character, Node>> iterator = node.next.entrySet().iterator();
-        while (iterator.hasNext()){
-            Map.Entry<Character, Node> entry = iterator.next();
-            getCharacterList(entry.getValue(),entry.getKey(),list,sb);
-        }
-        //取出上一个节点所拼接的单词字母
-        sb.deleteCharAt(sb.length() - 1);
-        return list;
+    /**
+     * 按照字典序逐个返回以 prefix 为前缀的字符串（不会一次生成所有字符串）
+     */
+    public Iterator<String> prefixIterator(String prefix){
+        return prefixIterator(prefix,null,Integer.MAX_VALUE);
+    }
+
+    /**
+     * 分页获取以 prefix 为前缀的字符串
+     * @param startAfter 只返回字典序大于 startAfter 的字符串（一般为上一页的最后一个），为null时从第一个开始
+     * @param limit 最多返回的个数
+     */
+    public Iterator<String> prefixIterator(String prefix,String startAfter,int limit){
+        return newPrefixIterator(prefix,startAfter,limit);
+    }
+
+    /**
+     * 以流的方式获取以 prefix 为前缀的字符串（按照字典序，延迟遍历）
+     */
+    public Stream<String> prefixStream(String prefix){
+        return newPrefixIterator(prefix,null,Integer.MAX_VALUE).stream();
+    }
+
+    private PrefixIterator<Node> newPrefixIterator(String prefix,String startAfter,int limit){
+        PrefixIterator<Node> iterator = new PrefixIterator<Node>(limit) {
+            @Override
+            Node child(Node node, char c) {
+                return node.get(c);
+            }
+
+            @Override
+            void pushChildren(Node node, int from) {
+                char[] keys = node.sortedKeys();
+                for (int i = node.count - 1; i >= 0 && keys[i] >= from; i--) {
+                    push(node.hashed ? node.get(keys[i]) : node.children[i],keys[i]);
+                }
+            }
+
+            @Override
+            boolean isEnd(Node node) {
+                return node.end > 0;
+            }
+        };
+        return iterator.start(root,toCharArray(prefix),startAfter == null ? null : toCharArray(startAfter));
+    }
+
+    /**
+     * 模糊查找：返回与 query 的编辑距离不超过 maxDistance 的字符串
+     * 按照字典序返回，调用 next() 时才继续查找
+     */
+    public Iterator<String> fuzzySearch(String query,int maxDistance){
+        return new LevenshteinIterator<Node>(root,toCharArray(query),maxDistance) {
+            @Override
+            void pushChildren(Node node) {
+                char[] keys = node.sortedKeys();
+                for (int i = node.count - 1; i >= 0; i--) {
+                    push(node.hashed ? node.get(keys[i]) : node.children[i],keys[i]);
+                }
+            }
+
+            @Override
+            boolean isEnd(Node node) {
+                return node.end > 0;
+            }
+        };
     }
 
     @Override
     public int getPrefixSize(String prefix) {
         if (isEmpty()) return 0;
-        Node node = root;
-        Character[] characters = toCharArray(prefix);
-        for (int i = 0; i < characters.length; i++) {
-            Character character = characters[i];
-            if (ObjectUtils.isEmpty(node)) return 0;
-            node = node.next.get(character);
-        }
-        return node.pass;
+        Node node = find(toCharArray(prefix));
+        return ObjectUtils.isEmpty(node) ? 0 : node.pass;
     }
 
     @Override
     public void clear() {
-        root.next.clear();
+        root = new Node();
         size = 0;
-        root = null;
     }
 
-    private Character[] toCharArray(String value){
-       if (value == null){
-           return new Character[0];
-       }
+    private char[] toCharArray(String value){
+        if (value == null){
+            return EMPTY_KEYS;
+        }
         if (enableCase){
             value = value.toLowerCase();
         }
-        char[] chars = value.toCharArray();
-        Character[] characters = new Character[chars.length];
-        for (int i = 0; i < chars.length; i++) {
-            characters[i] = chars[i];
-        }
-        return characters;
+        return value.toCharArray();
     }
 }
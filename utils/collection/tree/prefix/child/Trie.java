@@ -10,6 +10,7 @@ import utils.objects.ObjectUtils;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.stream.Stream;
 
 /**
  * 单词查找树
@@ -276,6 +277,75 @@ public class Trie implements PrefixTree {
         return list;
     }
 
+    /**
+     * 按照字典序逐个返回以 prefix 为前缀的单词（不会一次生成所有单词）
+     */
+    public Iterator<String> prefixIterator(String prefix){
+        return prefixIterator(prefix,null,Integer.MAX_VALUE);
+    }
+
+    /**
+     * 分页获取以 prefix 为前缀的单词
+     * @param startAfter 只返回字典序大于 startAfter 的单词（一般为上一页的最后一个单词），为null时从第一个开始
+     * @param limit 最多返回的单词个数
+     */
+    public Iterator<String> prefixIterator(String prefix,String startAfter,int limit){
+        return newPrefixIterator(prefix,startAfter,limit);
+    }
+
+    /**
+     * 以流的方式获取以 prefix 为前缀的单词（按照字典序，延迟遍历）
+     */
+    public Stream<String> prefixStream(String prefix){
+        return newPrefixIterator(prefix,null,Integer.MAX_VALUE).stream();
+    }
+
+    private PrefixIterator<Node> newPrefixIterator(String prefix,String startAfter,int limit){
+        PrefixIterator<Node> iterator = new PrefixIterator<Node>(limit) {
+            @Override
+            Node child(Node node, char c) {
+                return node.nexts[getIndex(c)];
+            }
+
+            @Override
+            void pushChildren(Node node, int from) {
+                for (int i = node.nexts.length - 1; i >= 0 && LETTER_TABLE[i] >= from; i--) {
+                    if (!ObjectUtils.isEmpty(node.nexts[i])) push(node.nexts[i],LETTER_TABLE[i]);
+                }
+            }
+
+            @Override
+            boolean isEnd(Node node) {
+                return node.end > 0;
+            }
+        };
+        return iterator.start(root,toCharArray(prefix),startAfter == null ? null : toCharArray(startAfter));
+    }
+
+    /**
+     * 模糊查找：返回与 query 的编辑距离不超过 maxDistance 的单词
+     * 按照字典序返回，调用 next() 时才继续查找
+     * query 中的非字母字符不会抛出异常，而是当作不匹配的字符（例如 "c@t" 与 "cat" 的距离为1）
+     */
+    public Iterator<String> fuzzySearch(String query,int maxDistance){
+        //不使用 toCharArray 的校验：非字母字符与树中的任何字符都不相等，自然按照替换/删除计算距离
+        char[] chars = query == null ? new char[0] : query.toLowerCase().toCharArray();
+        return new LevenshteinIterator<Node>(root,chars,maxDistance) {
+            @Override
+            void pushChildren(Node node) {
+                //从大到小压栈，保证按照字典序弹出
+                for (int i = node.nexts.length - 1; i >= 0; i--) {
+                    if (!ObjectUtils.isEmpty(node.nexts[i])) push(node.nexts[i],LETTER_TABLE[i]);
+                }
+            }
+
+            @Override
+            boolean isEnd(Node node) {
+                return node.end > 0;
+            }
+        };
+    }
+
     @Override
     public int getPrefixSize(String prefix) {
         if (isEmpty()) return 0;
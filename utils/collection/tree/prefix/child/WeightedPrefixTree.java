@@ -0,0 +1,358 @@
+package utils.collection.tree.prefix.child;
+
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.queue.child.PriorityQueue;
+import utils.collection.tree.prefix.PrefixTree;
+
+import java.util.Arrays;
+
+/**
+ * 带权重的前缀树（用于搜索框的自动补全）
+ * 每个单词带有一个分数，同一个单词只保存一次，重复添加时累加分数（add(value) 相当于分数加1，即按照出现次数排序）
+ * 每个节点缓存子树中单词的最大分数 maxScore，topK(prefix, k) 从前缀节点开始做最优优先搜索：
+ *   优先队列中同时存放节点（按照 maxScore）和单词（按照自身分数），弹出的单词一定不小于队列中剩余的所有单词
+ *   只访问能够进入前 k 名的分支，不需要遍历整棵子树
+ * 孩子按照字符排序存放在 char[]/Node[] 中，支持任意字符，区分大小写
+ */
+public class WeightedPrefixTree implements PrefixTree {
+
+    private static final char[] EMPTY_KEYS = new char[0];
+
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    final static class Node{
+        //与 children 一一对应，按照字符排序
+        char[] keys;
+        Node[] children;
+        //经过当前节点的单词个数
+        int pass;
+        //是否为单词结尾
+        boolean end;
+        //单词的分数（end 为true时有效）
+        long score;
+        //当前节点及子树中单词的最大分数
+        long maxScore;
+
+        Node() {
+            keys = EMPTY_KEYS;
+            children = EMPTY_CHILDREN;
+            maxScore = Long.MIN_VALUE;
+        }
+
+        Node get(char c){
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+
+    /**
+     * 最优优先搜索中的候选项，通过 parent 链在输出时还原字符串
+     */
+    final static class Candidate{
+        final Node node;
+        final Candidate parent;
+        final char c;
+        //为true时表示以 node 结尾的单词，否则表示 node 的整棵子树
+        final boolean word;
+        final long key;
+
+        Candidate(Node node, Candidate parent, char c, boolean word) {
+            this.node = node;
+            this.parent = parent;
+            this.c = c;
+            this.word = word;
+            this.key = word ? node.score : node.maxScore;
+        }
+    }
+
+    private Node root;
+
+    private int size;
+
+    public WeightedPrefixTree() {
+        root = new Node();
+    }
+
+    public WeightedPrefixTree(String... values) {
+        this();
+        for (String value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * 添加单词，分数加1
+     */
+    @Override
+    public void add(String value) {
+        add(value, 1);
+    }
+
+    /**
+     * 添加单词，分数加上 weight（单词不存在时分数为 weight）
+     */
+    public void add(String value, long weight) {
+        Node[] path = path(value, true);
+        Node node = path[path.length - 1];
+        if (!node.end){
+            node.end = true;
+            node.score = weight;
+            for (Node n : path) {
+                n.pass++;
+            }
+            ++size;
+        }else {
+            node.score += weight;
+        }
+        updateMaxScore(path);
+    }
+
+    /**
+     * 设置单词的分数，单词不存在时添加
+     */
+    public void setScore(String value, long score) {
+        Node[] path = path(value, false);
+        if (path == null || !path[path.length - 1].end){
+            add(value, score);
+            return;
+        }
+        path[path.length - 1].score = score;
+        updateMaxScore(path);
+    }
+
+    /**
+     * 获取单词的分数
+     * @return 单词不存在时返回 0
+     */
+    public long getScore(String value) {
+        Node node = find(value);
+        return node == null || !node.end ? 0 : node.score;
+    }
+
+    /**
+     * 返回以 prefix 为前缀、分数最高的 k 个单词（按照分数从高到低排序）
+     */
+    public List<String> topK(String prefix, int k) {
+        if (k < 0) throw new IllegalArgumentException("k < 0: " + k);
+        List<String> list = new ArrayList<>();
+        Node node = find(prefix);
+        if (node == null || node.pass == 0 || k == 0) return list;
+        String start = prefix == null ? "" : prefix;
+        //分数高的在前，分数相同时单词优先（可以更早结束搜索）
+        PriorityQueue<Candidate> queue = new PriorityQueue<>((c1, c2) -> {
+            if (c1.key != c2.key) return c1.key > c2.key ? -1 : 1;
+            return Boolean.compare(c2.word, c1.word);
+        });
+        queue.add(new Candidate(node, null, '\0', false));
+        StringBuilder sb = new StringBuilder();
+        while (!queue.isEmpty() && list.size() < k){
+            Candidate candidate = queue.poll();
+            Node current = candidate.node;
+            if (candidate.word){
+                list.add(toString(start, candidate, sb));
+                continue;
+            }
+            if (current.end) queue.add(new Candidate(current, candidate, '\0', true));
+            for (int i = 0; i < current.children.length; i++) {
+                queue.add(new Candidate(current.children[i], candidate, current.keys[i], false));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 前缀 + 候选项 parent 链上的字符
+     */
+    private static String toString(String prefix, Candidate candidate, StringBuilder sb) {
+        sb.setLength(0);
+        //单词候选项与其所在节点的候选项对应同一个节点，不追加字符
+        for (Candidate c = candidate.word ? candidate.parent : candidate; c.parent != null; c = c.parent) {
+            sb.append(c.c);
+        }
+        sb.reverse();
+        return prefix + sb;
+    }
+
+    /**
+     * 从下往上重新计算路径上每个节点的 maxScore
+     */
+    private static void updateMaxScore(Node[] path) {
+        for (int d = path.length - 1; d >= 0; d--) {
+            Node node = path[d];
+            long max = node.end ? node.score : Long.MIN_VALUE;
+            for (Node child : node.children) {
+                if (child.maxScore > max) max = child.maxScore;
+            }
+            //上层节点的 maxScore 不会受到影响
+            if (max == node.maxScore) return;
+            node.maxScore = max;
+        }
+    }
+
+    /**
+     * 获取从根节点到 value 对应节点的路径
+     * @param create 节点不存在时是否创建
+     * @return 节点不存在并且不创建时返回null
+     */
+    private Node[] path(String value, boolean create) {
+        char[] chars = toCharArray(value);
+        Node[] path = new Node[chars.length + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < chars.length; i++) {
+            int index = Arrays.binarySearch(node.keys, chars[i]);
+            if (index < 0){
+                if (!create) return null;
+                Node child = new Node();
+                insertChild(node, -(index + 1), chars[i], child);
+                node = child;
+            }else {
+                node = node.children[index];
+            }
+            path[i + 1] = node;
+        }
+        return path;
+    }
+
+    private static void insertChild(Node node, int position, char c, Node child) {
+        int length = node.keys.length;
+        char[] keys = new char[length + 1];
+        Node[] children = new Node[length + 1];
+        System.arraycopy(node.keys, 0, keys, 0, position);
+        System.arraycopy(node.children, 0, children, 0, position);
+        keys[position] = c;
+        children[position] = child;
+        System.arraycopy(node.keys, position, keys, position + 1, length - position);
+        System.arraycopy(node.children, position, children, position + 1, length - position);
+        node.keys = keys;
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, char c) {
+        int index = Arrays.binarySearch(node.keys, c);
+        if (index < 0) return;
+        int length = node.keys.length - 1;
+        if (length == 0){
+            node.keys = EMPTY_KEYS;
+            node.children = EMPTY_CHILDREN;
+            return;
+        }
+        char[] keys = new char[length];
+        Node[] children = new Node[length];
+        System.arraycopy(node.keys, 0, keys, 0, index);
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.keys, index + 1, keys, index, length - index);
+        System.arraycopy(node.children, index + 1, children, index, length - index);
+        node.keys = keys;
+        node.children = children;
+    }
+
+    private Node find(String value) {
+        char[] chars = toCharArray(value);
+        Node node = root;
+        for (int i = 0; i < chars.length && node != null; i++) {
+            node = node.get(chars[i]);
+        }
+        return node;
+    }
+
+    @Override
+    public boolean remove(String value) {
+        Node[] path = path(value, false);
+        if (path == null || !path[path.length - 1].end) return false;
+        Node node = path[path.length - 1];
+        node.end = false;
+        node.score = 0;
+        for (Node n : path) {
+            n.pass--;
+        }
+        --size;
+        cut(path, toCharArray(value));
+        return true;
+    }
+
+    @Override
+    public int removePrefix(String prefix) {
+        char[] chars = toCharArray(prefix);
+        if (chars.length == 0){
+            int count = size;
+            clear();
+            return count;
+        }
+        Node[] path = path(prefix, false);
+        if (path == null) return 0;
+        int count = path[path.length - 1].pass;
+        if (count == 0) return 0;
+        for (Node n : path) {
+            n.pass -= count;
+        }
+        size -= count;
+        cut(path, chars);
+        return count;
+    }
+
+    /**
+     * 删除路径上 pass 为 0 的节点，并重新计算剩余节点的 maxScore
+     */
+    private void cut(Node[] path, char[] chars) {
+        int d = path.length - 1;
+        while (d > 0 && path[d].pass == 0){
+            --d;
+        }
+        if (d < path.length - 1) removeChild(path[d], chars[d]);
+        updateMaxScore(Arrays.copyOf(path, d + 1));
+    }
+
+    @Override
+    public boolean contains(String value) {
+        Node node = find(value);
+        return node != null && node.end;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 按照字典序返回以 prefix 为前缀的所有单词
+     */
+    @Override
+    public List<String> getPrefix(String prefix) {
+        List<String> list = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null) collect(node, new StringBuilder(prefix == null ? "" : prefix), list);
+        return list;
+    }
+
+    private void collect(Node node, StringBuilder sb, List<String> list) {
+        if (node.end) list.add(sb.toString());
+        for (int i = 0; i < node.children.length; i++) {
+            sb.append(node.keys[i]);
+            collect(node.children[i], sb, list);
+            sb.setLength(sb.length() - 1);
+        }
+    }
+
+    @Override
+    public int getPrefixSize(String prefix) {
+        Node node = find(prefix);
+        return node == null ? 0 : node.pass;
+    }
+
+    @Override
+    public void clear() {
+        root = new Node();
+        size = 0;
+    }
+
+    private char[] toCharArray(String value) {
+        return value == null ? EMPTY_KEYS : value.toCharArray();
+    }
+}
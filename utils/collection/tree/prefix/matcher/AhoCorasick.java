@@ -0,0 +1,311 @@
+package utils.collection.tree.prefix.matcher;
+
+import utils.collection.Collection;
+import utils.collection.list.List;
+import utils.collection.list.child.ArrayList;
+import utils.collection.tree.prefix.PrefixTree;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Aho-Corasick 多模式匹配自动机
+ * 将所有关键字构建为一棵前缀树，再为每个状态计算：
+ *   fail：当前状态对应字符串的最长真后缀所在的状态（匹配失败时跳转）
+ *   dictLink：沿 fail 链找到的下一个关键字结尾的状态（用于输出被包含的关键字）
+ * 扫描文本时每个字符最多沿 fail 链回退若干次，总时间为 O(文本长度 + 匹配个数)，与关键字个数无关
+ * 每个状态的转移按照字符排序存放在 char[]/int[] 中，查找时二分，没有装箱
+ * enableCase 与 StringPrefixSearchTree(enableCase) 一致：为true时关键字与文本都转为小写后再匹配
+ */
+public class AhoCorasick {
+
+    private static final char[] EMPTY_LABELS = new char[0];
+
+    private static final int[] EMPTY_TARGETS = new int[0];
+
+    private final boolean enableCase;
+
+    /**
+     * 状态 s 的转移：labels[s][i] -> targets[s][i]（按照字符排序）
+     */
+    private char[][] labels;
+
+    private int[][] targets;
+
+    private int[] fail;
+
+    private int[] dictLink;
+
+    /**
+     * 以状态 s 结尾的关键字序号，没有时为 -1
+     */
+    private int[] output;
+
+    private int stateCount;
+
+    private final String[] keywords;
+
+    public AhoCorasick(String... keywords) {
+        this(false, keywords);
+    }
+
+    public AhoCorasick(boolean enableCase, String... keywords) {
+        this.enableCase = enableCase;
+        int capacity = 16;
+        for (String keyword : keywords) {
+            if (keyword != null) capacity += keyword.length();
+        }
+        labels = new char[capacity][];
+        targets = new int[capacity][];
+        output = new int[capacity];
+        stateCount = 1;
+        labels[0] = EMPTY_LABELS;
+        targets[0] = EMPTY_TARGETS;
+        output[0] = -1;
+        String[] stored = new String[keywords.length];
+        int count = 0;
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.isEmpty()) continue;
+            int s = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                s = goOrCreate(s, normalize(keyword.charAt(i)));
+            }
+            //重复的关键字只保留一个
+            if (output[s] < 0){
+                output[s] = count;
+                stored[count++] = keyword;
+            }
+        }
+        this.keywords = Arrays.copyOf(stored, count);
+        buildFailLinks();
+    }
+
+    public AhoCorasick(Collection<String> keywords, boolean enableCase) {
+        this(enableCase, Arrays.copyOf(keywords.toArray(), keywords.size(), String[].class));
+    }
+
+    /**
+     * 使用前缀树中的所有字符串作为关键字
+     */
+    public AhoCorasick(PrefixTree tree, boolean enableCase) {
+        this(toArray(tree.getPrefix("")), enableCase);
+    }
+
+    private static String[] toArray(List<String> list) {
+        if (list == null) return new String[0];
+        String[] array = new String[list.size()];
+        Iterator<String> iterator = list.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            array[i] = iterator.next();
+        }
+        return array;
+    }
+
+    private AhoCorasick(String[] keywords, boolean enableCase) {
+        this(enableCase, keywords);
+    }
+
+    private char normalize(char c) {
+        return enableCase ? Character.toLowerCase(c) : c;
+    }
+
+    /**
+     * 状态 s 经过字符 c 的转移，不存在时返回 -1
+     */
+    private int go(int s, char c) {
+        int index = Arrays.binarySearch(labels[s], c);
+        return index < 0 ? -1 : targets[s][index];
+    }
+
+    private int goOrCreate(int s, char c) {
+        char[] label = labels[s];
+        int index = Arrays.binarySearch(label, c);
+        if (index >= 0) return targets[s][index];
+        int position = -(index + 1);
+        int t = newState();
+        char[] newLabel = new char[label.length + 1];
+        int[] newTarget = new int[label.length + 1];
+        System.arraycopy(label, 0, newLabel, 0, position);
+        System.arraycopy(targets[s], 0, newTarget, 0, position);
+        newLabel[position] = c;
+        newTarget[position] = t;
+        System.arraycopy(label, position, newLabel, position + 1, label.length - position);
+        System.arraycopy(targets[s], position, newTarget, position + 1, label.length - position);
+        labels[s] = newLabel;
+        targets[s] = newTarget;
+        return t;
+    }
+
+    private int newState() {
+        if (stateCount == labels.length){
+            int capacity = stateCount << 1;
+            labels = Arrays.copyOf(labels, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            output = Arrays.copyOf(output, capacity);
+        }
+        int s = stateCount++;
+        labels[s] = EMPTY_LABELS;
+        targets[s] = EMPTY_TARGETS;
+        output[s] = -1;
+        return s;
+    }
+
+    /**
+     * 按照广度优先的顺序计算 fail 与 dictLink（父状态的 fail 总是先计算完成）
+     */
+    private void buildFailLinks() {
+        labels = Arrays.copyOf(labels, stateCount);
+        targets = Arrays.copyOf(targets, stateCount);
+        output = Arrays.copyOf(output, stateCount);
+        fail = new int[stateCount];
+        dictLink = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0,
+            tail = 0;
+        for (int t : targets[0]) {
+            queue[tail++] = t;
+        }
+        while (head < tail){
+            int s = queue[head++];
+            char[] label = labels[s];
+            int[] target = targets[s];
+            for (int i = 0; i < label.length; i++) {
+                int t = target[i];
+                char c = label[i];
+                int f = fail[s];
+                int next;
+                while ((next = go(f, c)) < 0 && f != 0){
+                    f = fail[f];
+                }
+                fail[t] = next < 0 ? 0 : next;
+                dictLink[t] = output[fail[t]] >= 0 ? fail[t] : dictLink[fail[t]];
+                queue[tail++] = t;
+            }
+        }
+    }
+
+    /**
+     * 从状态 s 读入字符 c 后的状态
+     */
+    private int next(int s, char c) {
+        int t;
+        while ((t = go(s, c)) < 0 && s != 0){
+            s = fail[s];
+        }
+        return t < 0 ? 0 : t;
+    }
+
+    /**
+     * 输出以状态 s 结尾的所有关键字
+     * @param end 匹配的结束位置（不包含）
+     */
+    private void emit(int s, long end, Consumer<? super Match> consumer) {
+        if (output[s] < 0) s = dictLink[s];
+        while (s > 0){
+            String keyword = keywords[output[s]];
+            consumer.accept(new Match(end - keyword.length(), end, keyword));
+            s = dictLink[s];
+        }
+    }
+
+    /**
+     * 查找文本中所有的关键字（包括互相重叠的）
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> list = new ArrayList<>();
+        search(text, list::add);
+        return list;
+    }
+
+    /**
+     * 扫描文本，每匹配到一个关键字调用一次 consumer
+     */
+    public void search(CharSequence text, Consumer<? super Match> consumer) {
+        int s = 0;
+        for (int i = 0; i < text.length(); i++) {
+            s = next(s, normalize(text.charAt(i)));
+            if (s != 0 && (output[s] >= 0 || dictLink[s] > 0)) emit(s, i + 1, consumer);
+        }
+    }
+
+    /**
+     * 文本中是否包含任意一个关键字（找到第一个就返回）
+     */
+    public boolean containsAny(CharSequence text) {
+        int s = 0;
+        for (int i = 0; i < text.length(); i++) {
+            s = next(s, normalize(text.charAt(i)));
+            if (s != 0 && (output[s] >= 0 || dictLink[s] > 0)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 创建分块扫描器：文本可以分多次输入，跨越块边界的关键字同样能够匹配
+     */
+    public Scanner newScanner(Consumer<? super Match> consumer) {
+        return new Scanner(consumer);
+    }
+
+    /**
+     * 分块扫描器，保存当前状态以及已经读入的字符个数（不是线程安全的）
+     */
+    public final class Scanner {
+
+        private final Consumer<? super Match> consumer;
+
+        private int state;
+
+        private long position;
+
+        Scanner(Consumer<? super Match> consumer) {
+            this.consumer = consumer;
+        }
+
+        public void feed(CharSequence chunk) {
+            for (int i = 0; i < chunk.length(); i++) {
+                feed(chunk.charAt(i));
+            }
+        }
+
+        public void feed(char[] chunk, int offset, int length) {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                feed(chunk[i]);
+            }
+        }
+
+        private void feed(char c) {
+            int s = next(state, normalize(c));
+            state = s;
+            ++position;
+            if (s != 0 && (output[s] >= 0 || dictLink[s] > 0)) emit(s, position, consumer);
+        }
+
+        /**
+         * 已经读入的字符个数
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * 重新开始扫描新的文本
+         */
+        public void reset() {
+            state = 0;
+            position = 0;
+        }
+    }
+
+    /**
+     * 关键字个数（重复的只计算一次）
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    public int stateCount() {
+        return stateCount;
+    }
+}
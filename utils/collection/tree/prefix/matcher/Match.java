@@ -0,0 +1,55 @@
+package utils.collection.tree.prefix.matcher;
+
+/**
+ * 一次关键字匹配
+ */
+public final class Match {
+
+    private final long start;
+
+    private final long end;
+
+    private final String keyword;
+
+    public Match(long start, long end, String keyword) {
+        this.start = start;
+        this.end = end;
+        this.keyword = keyword;
+    }
+
+    /**
+     * 匹配的起始位置（分块输入时为在整个文本中的位置）
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * 匹配的结束位置（不包含）
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Match)) return false;
+        Match match = (Match) o;
+        return start == match.start && end == match.end && keyword.equals(match.keyword);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (31 * (31 * start + end) + keyword.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return keyword + "[" + start + "," + end + ")";
+    }
+}